@@ -0,0 +1,149 @@
+package com.dynamiconlineshopping.backend.cache;
+
+import com.dynamiconlineshopping.backend.repository.CartRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CartQuantityBuffer - coalesces bursts of quantity changes to one cart line into a single write.
+ *
+ * The first change to a line opens a window of app.cart.coalesceWindowMs; later changes only replace
+ * the buffered quantity, and the last one is written when the window closes. Cart reads overlay the
+ * buffered values, and every other write path flushes the user's lines first (order placement, adds,
+ * bulk changes) so nothing older can land on top of it.
+ *
+ * Buffers are per node and flushed on shutdown: another node neither sees a buffered quantity nor
+ * flushes it before placing an order. Enable it (a window above 0) only when each user's requests are
+ * routed to one node (sticky sessions); the default of 0 turns buffering off.
+ */
+@Slf4j
+@Component
+public class CartQuantityBuffer {
+
+    private final CartRepository cartRepository;
+    private final long windowMs;
+    private final ScheduledExecutorService flusher;
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+
+    public CartQuantityBuffer(CartRepository cartRepository,
+                              @Value("${app.cart.coalesceWindowMs:0}") long windowMs) {
+        this.cartRepository = cartRepository;
+        this.windowMs = windowMs;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cart-quantity-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public boolean isEnabled() {
+        return windowMs > 0;
+    }
+
+    // true while a change buffered for this owner is waiting, i.e. the line was checked to be theirs in this window
+    public boolean isPendingFor(Long cartItemId, Long userId) {
+        Pending line = pending.get(cartItemId);
+        return line != null && Objects.equals(line.userId, userId);
+    }
+
+    // Buffered quantity, or null when nothing is waiting for the line
+    public Integer peek(Long cartItemId) {
+        Pending line = pending.get(cartItemId);
+        return line != null ? line.quantity : null;
+    }
+
+    // userId must be the line's owner (checked by the caller); flushUser finds the line by it
+    public void buffer(Long cartItemId, Long userId, int quantity) {
+        while (true) {
+            Pending created = new Pending(userId);
+            Pending line = pending.computeIfAbsent(cartItemId, id -> created);
+            synchronized (line) {
+                if (line.flushed) {
+                    // written just now; start a new window for this change
+                    continue;
+                }
+                line.quantity = quantity;
+            }
+            if (line == created) {
+                flusher.schedule(() -> flushQuietly(cartItemId), windowMs, TimeUnit.MILLISECONDS);
+            }
+            return;
+        }
+    }
+
+    public void flushUser(Long userId) {
+        pending.forEach((cartItemId, line) -> {
+            if (Objects.equals(line.userId, userId)) {
+                flush(cartItemId);
+            }
+        });
+    }
+
+    // The line was deleted; its buffered quantity must not be written
+    public void discard(Long cartItemId) {
+        Pending line = pending.remove(cartItemId);
+        if (line != null) {
+            synchronized (line) {
+                line.flushed = true;
+            }
+        }
+    }
+
+    void flush(Long cartItemId) {
+        Pending line = pending.get(cartItemId);
+        if (line == null) {
+            return;
+        }
+        synchronized (line) {
+            if (line.flushed) {
+                return;
+            }
+            // the entry stays visible until written, so reads never fall back to the old row meanwhile
+            if (line.quantity != null) {
+                cartRepository.updateQuantity(cartItemId, line.quantity);
+            }
+            line.flushed = true;
+            pending.remove(cartItemId, line);
+        }
+    }
+
+    private void flushQuietly(Long cartItemId) {
+        try {
+            flush(cartItemId);
+        } catch (Exception e) {
+            log.error("Cart quantity flush failed for line {}, retrying next window", cartItemId, e);
+            flusher.schedule(() -> flushQuietly(cartItemId), windowMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+        for (Long cartItemId : pending.keySet()) {
+            try {
+                flush(cartItemId);
+            } catch (Exception e) {
+                log.error("Cart quantity flush failed on shutdown for line {}", cartItemId, e);
+            }
+        }
+    }
+
+    private static final class Pending {
+        private final Long userId;
+        private volatile Integer quantity;
+        private boolean flushed;
+
+        private Pending(Long userId) {
+            this.userId = userId;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.dynamiconlineshopping.backend.cache;
+
+import com.dynamiconlineshopping.backend.dto.ProductDto;
+
+import java.util.List;
+
+/**
+ * CatalogETags - strong entity tags for product representations.
+ *
+ * Tags are derived from ids and versions only, so they can be computed without serializing the
+ * body and are the same whether a response is rendered live or served from a snapshot. A gzip-encoded
+ * body is a different representation, so it carries its own tag ({@link #gzip}).
+ */
+public final class CatalogETags {
+
+    private CatalogETags() {
+    }
+
+    public static String product(Long id, long version) {
+        return "\"p" + id + "-v" + version + "\"";
+    }
+
+    // FNV-1a over (id, version) of every item plus the page metadata: changes whenever an item is
+    // added, removed, reordered or edited
+    public static String list(List<ProductDto> items, String nextCursor, int limit) {
+        long hash = 0xcbf29ce484222325L;
+        for (ProductDto item : items) {
+            hash = fnv(hash, item.getId() != null ? item.getId() : -1L);
+            hash = fnv(hash, item.getVersion() != null ? item.getVersion() : -1L);
+        }
+        hash = fnv(hash, nextCursor != null ? nextCursor.hashCode() : 0L);
+        hash = fnv(hash, limit);
+        return "\"l" + items.size() + "-" + Long.toHexString(hash) + "\"";
+    }
+
+    // Strong tags must differ per content-coding (RFC 9110 8.8.3), so the gzip body gets a suffixed tag
+    public static String gzip(String tag) {
+        return tag.substring(0, tag.length() - 1) + "-gz\"";
+    }
+
+    // If-None-Match uses the weak comparison (RFC 9110 13.1.2), so a W/ prefix added by a proxy still matches.
+    // Either encoding's tag validates: both describe the same entity version.
+    public static boolean matches(String ifNoneMatch, String tag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(tag) || value.equals(gzip(tag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long fnv(long hash, long value) {
+        for (int i = 0; i < 8; i++) {
+            hash ^= (value >>> (i * 8)) & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
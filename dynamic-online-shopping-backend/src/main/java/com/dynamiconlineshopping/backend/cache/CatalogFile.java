@@ -0,0 +1,186 @@
+package com.dynamiconlineshopping.backend.cache;
+
+import com.dynamiconlineshopping.backend.dto.CatalogFingerprint;
+import com.dynamiconlineshopping.backend.dto.ProductDto;
+import com.dynamiconlineshopping.backend.dto.ProductVersion;
+import com.dynamiconlineshopping.backend.entity.Product;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * CatalogFile - compact binary catalog, read through a memory-mapped buffer.
+ *
+ * Layout (little endian): a header (magic, format, count, the catalog fingerprint it was built
+ * from), then one fixed-size record per product sorted by id, then a blob of UTF-8 strings the
+ * records point into. A lookup is a binary search over the records with absolute reads, so the
+ * catalog itself costs no heap and only the returned DTO is allocated. Files are written to a
+ * temporary sibling and moved into place, so a reader never sees a half-written file.
+ */
+public final class CatalogFile {
+
+    private static final int MAGIC = 0x444F5343; // "DOSC"
+    private static final int FORMAT = 2;
+    private static final int HEADER_SIZE = 4 + 4 + 4 + 8 + 8 + 8;
+    private static final int STRINGS = 4; // title, description, sku, imageUrl
+    // id, price, stock, version, updatedAt, categoryId, then (offset, length) per string
+    private static final int RECORD_SIZE = 8 + 8 + 4 + 8 + 8 + 8 + STRINGS * 8;
+    private static final long NO_CATEGORY = 0L;
+    private static final int NO_STOCK = Integer.MIN_VALUE;
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final long blobStart;
+    private final CatalogFingerprint fingerprint;
+
+    private CatalogFile(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.count = buffer.getInt(8);
+        this.fingerprint = new CatalogFingerprint(buffer.getLong(12),
+                buffer.getLong(20) == Long.MIN_VALUE ? null : Instant.ofEpochMilli(buffer.getLong(20)),
+                buffer.getLong(28));
+        this.blobStart = HEADER_SIZE + (long) count * RECORD_SIZE;
+    }
+
+    // Maps an existing file; null when it is missing or was written by another format
+    public static CatalogFile open(Path path) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                return null;
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != FORMAT) {
+                return null;
+            }
+            // the mapping stays valid after the channel is closed
+            return new CatalogFile(mapped);
+        }
+    }
+
+    public static void write(Path path, List<Product> products, CatalogFingerprint fingerprint) throws IOException {
+        List<Product> sorted = products.stream().sorted(Comparator.comparing(Product::getId)).toList();
+        ByteBuffer records = ByteBuffer.allocate(HEADER_SIZE + sorted.size() * RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        ByteArrayOutputStream blob = new ByteArrayOutputStream();
+
+        records.putInt(MAGIC).putInt(FORMAT).putInt(sorted.size())
+                .putLong(fingerprint.getCount())
+                .putLong(CatalogFingerprint.millis(fingerprint.getLastUpdatedAt()))
+                .putLong(fingerprint.getVersionSum());
+        for (Product p : sorted) {
+            records.putLong(p.getId())
+                    .putDouble(p.getPrice() != null ? p.getPrice() : Double.NaN)
+                    .putInt(p.getStock() != null ? p.getStock() : NO_STOCK)
+                    .putLong(p.getVersion())
+                    .putLong(CatalogFingerprint.millis(p.getUpdatedAt()))
+                    .putLong(p.getCategory() != null ? p.getCategory().getId() : NO_CATEGORY);
+            for (String value : new String[]{p.getTitle(), p.getDescription(), p.getSku(), p.getImageUrl()}) {
+                byte[] bytes = value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+                records.putInt(blob.size()).putInt(bytes != null ? bytes.length : -1);
+                if (bytes != null) {
+                    blob.write(bytes);
+                }
+            }
+        }
+        records.flip();
+
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (records.hasRemaining()) {
+                channel.write(records);
+            }
+            ByteBuffer strings = ByteBuffer.wrap(blob.toByteArray());
+            while (strings.hasRemaining()) {
+                channel.write(strings);
+            }
+            channel.force(true);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public CatalogFingerprint fingerprint() {
+        return fingerprint;
+    }
+
+    public ProductDto find(long id) {
+        int record = indexOf(id);
+        if (record < 0) {
+            return null;
+        }
+        int at = HEADER_SIZE + record * RECORD_SIZE;
+        double price = buffer.getDouble(at + 8);
+        int stock = buffer.getInt(at + 16);
+        long updatedAt = buffer.getLong(at + 28);
+        long categoryId = buffer.getLong(at + 36);
+        return ProductDto.builder()
+                .id(id)
+                .price(Double.isNaN(price) ? null : price)
+                .stock(stock == NO_STOCK ? null : stock)
+                .version(buffer.getLong(at + 20))
+                .updatedAt(updatedAt == Long.MIN_VALUE ? null : Instant.ofEpochMilli(updatedAt))
+                .categoryId(categoryId == NO_CATEGORY ? null : categoryId)
+                .title(string(at, 0))
+                .description(string(at, 1))
+                .sku(string(at, 2))
+                .imageUrl(string(at, 3))
+                .build();
+    }
+
+    public ProductVersion findVersion(long id) {
+        int record = indexOf(id);
+        if (record < 0) {
+            return null;
+        }
+        int at = HEADER_SIZE + record * RECORD_SIZE;
+        long updatedAt = buffer.getLong(at + 28);
+        return new ProductVersion(id, buffer.getLong(at + 20), updatedAt == Long.MIN_VALUE ? null : Instant.ofEpochMilli(updatedAt));
+    }
+
+    private int indexOf(long id) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = buffer.getLong(HEADER_SIZE + mid * RECORD_SIZE);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private String string(int recordAt, int field) {
+        int slot = recordAt + 44 + field * 8;
+        int length = buffer.getInt(slot + 4);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get((int) (blobStart + buffer.getInt(slot)), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
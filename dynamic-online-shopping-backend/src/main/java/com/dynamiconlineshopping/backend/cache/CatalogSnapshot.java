@@ -0,0 +1,108 @@
+package com.dynamiconlineshopping.backend.cache;
+
+import com.dynamiconlineshopping.backend.dto.ProductDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CatalogSnapshot - the unpaged catalog pre-rendered to JSON bytes, plus a gzip copy.
+ *
+ * The list is the same for every visitor, so it is serialized and compressed once per catalog
+ * change instead of once per request. Writes bump a generation and schedule a rebuild on a
+ * background thread; the finished snapshot is swapped in with one volatile write. A snapshot is
+ * only handed out while it matches the current generation, so callers fall back to the live path
+ * for the few milliseconds between a write and the rebuild instead of serving a stale list.
+ */
+@Slf4j
+@Component
+public class CatalogSnapshot {
+
+    private final ObjectMapper objectMapper;
+    private final ExecutorService builder;
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+
+    private volatile Rendered current;
+
+    public CatalogSnapshot(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.builder = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // The snapshot if it is current; otherwise null, and a rebuild from source is scheduled
+    public Rendered current(Supplier<List<ProductDto>> source) {
+        Rendered snapshot = current;
+        if (snapshot != null && snapshot.generation() == generation.get()) {
+            return snapshot;
+        }
+        refresh(source);
+        return null;
+    }
+
+    // Called after every catalog write; bursts of writes share one rebuild
+    public void invalidate(Supplier<List<ProductDto>> source) {
+        generation.incrementAndGet();
+        refresh(source);
+    }
+
+    private void refresh(Supplier<List<ProductDto>> source) {
+        if (rebuildPending.compareAndSet(false, true)) {
+            builder.execute(() -> rebuild(source));
+        }
+    }
+
+    void rebuild(Supplier<List<ProductDto>> source) {
+        rebuildPending.set(false);
+        long target = generation.get();
+        try {
+            List<ProductDto> items = source.get();
+            byte[] json = objectMapper.writeValueAsBytes(items);
+            Rendered snapshot = new Rendered(target, CatalogETags.list(items, null, 0), json, gzip(json));
+            // a write that landed while rendering has already scheduled the next rebuild
+            if (target == generation.get()) {
+                current = snapshot;
+            }
+            log.debug("Catalog snapshot rebuilt: {} products, {} bytes ({} gzipped)",
+                    items.size(), json.length, snapshot.gzip().length);
+        } catch (Exception e) {
+            log.error("Catalog snapshot rebuild failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        builder.shutdownNow();
+    }
+
+    static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        // built once per change, so spend the CPU on the smallest output
+        try (GZIPOutputStream gz = new GZIPOutputStream(out) {{ def.setLevel(Deflater.BEST_COMPRESSION); }}) {
+            gz.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * One rendered catalog: the JSON body, its gzip encoding and the ETag both share.
+     */
+    public record Rendered(long generation, String etag, byte[] json, byte[] gzip) {
+    }
+}
@@ -0,0 +1,184 @@
+package com.dynamiconlineshopping.backend.cache;
+
+import com.dynamiconlineshopping.backend.dto.CatalogFingerprint;
+import com.dynamiconlineshopping.backend.dto.ProductDto;
+import com.dynamiconlineshopping.backend.dto.ProductVersion;
+import com.dynamiconlineshopping.backend.entity.Product;
+import com.dynamiconlineshopping.backend.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * MappedCatalog - optional on-disk catalog (see CatalogFile) that a restarted node reads from
+ * before its caches are warm.
+ *
+ * Off unless app.catalog.mmap.enabled=true. On startup the last file is mapped straight away and
+ * serves lookups; it is then checked against the database fingerprint in the background and
+ * rewritten if anything changed. Local writes hide the file until the debounced rewrite lands,
+ * and a periodic fingerprint check picks up writes made by other nodes. Products read from the file
+ * are never put in the ProductCache, and a fingerprint mismatch empties that cache, since whatever
+ * it holds may predate the writes the mismatch reveals.
+ */
+@Slf4j
+@Component
+public class MappedCatalog {
+
+    private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final boolean enabled;
+    private final Path path;
+    private final long debounceMs;
+    private final int batchSize;
+    private final ScheduledExecutorService writer;
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicBoolean rewritePending = new AtomicBoolean();
+
+    private volatile Mapped current;
+
+    public MappedCatalog(ProductRepository productRepository,
+                         ProductCache productCache,
+                         @Value("${app.catalog.mmap.enabled:false}") boolean enabled,
+                         @Value("${app.catalog.mmap.path:catalog.bin}") String path,
+                         @Value("${app.catalog.mmap.debounceMs:2000}") long debounceMs,
+                         @Value("${app.search.loadBatchSize:1000}") int batchSize) {
+        this.productRepository = productRepository;
+        this.productCache = productCache;
+        this.enabled = enabled;
+        this.path = Path.of(path);
+        this.debounceMs = debounceMs;
+        this.batchSize = batchSize;
+        this.writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-file-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void mapExisting() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            CatalogFile file = CatalogFile.open(path);
+            if (file != null) {
+                current = new Mapped(file, generation.get());
+                log.info("Catalog file mapped: {} products from {}", file.size(), path.toAbsolutePath());
+            }
+        } catch (Exception e) {
+            log.warn("Catalog file {} could not be mapped, starting without it", path, e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyOnStartup() {
+        if (enabled) {
+            writer.execute(this::refreshIfChanged);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.catalog.mmap.checkIntervalMs:60000}",
+            initialDelayString = "${app.catalog.mmap.checkIntervalMs:60000}")
+    public void checkForRemoteWrites() {
+        if (enabled) {
+            writer.execute(this::refreshIfChanged);
+        }
+    }
+
+    // Called after every local catalog write
+    public void invalidate() {
+        if (!enabled) {
+            return;
+        }
+        generation.incrementAndGet();
+        if (rewritePending.compareAndSet(false, true)) {
+            writer.schedule(this::rewrite, debounceMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // null when disabled, not yet written, stale, or the product is not in the file
+    public ProductDto find(Long id) {
+        CatalogFile file = usable();
+        return file != null ? file.find(id) : null;
+    }
+
+    public ProductVersion findVersion(Long id) {
+        CatalogFile file = usable();
+        return file != null ? file.findVersion(id) : null;
+    }
+
+    private CatalogFile usable() {
+        Mapped mapped = current;
+        return mapped != null && mapped.generation() == generation.get() ? mapped.file() : null;
+    }
+
+    void refreshIfChanged() {
+        try {
+            Mapped mapped = current;
+            if (mapped != null && mapped.file().fingerprint().sameAs(productRepository.fingerprint())) {
+                return;
+            }
+            // hide the file first, so nothing read from it after this point can be re-cached
+            generation.incrementAndGet();
+            productCache.invalidateAll();
+            rewrite();
+        } catch (Exception e) {
+            log.error("Catalog file check failed", e);
+        }
+    }
+
+    void rewrite() {
+        rewritePending.set(false);
+        long target = generation.get();
+        long started = System.currentTimeMillis();
+        try {
+            // fingerprint first: a write racing the scan can only make the file look older than it is
+            CatalogFingerprint fingerprint = productRepository.fingerprint();
+            List<Product> products = new ArrayList<>();
+            List<Product> batch;
+            long afterId = 0L;
+            do {
+                batch = productRepository.findSliceByIdAsc(afterId, null, null, false, PageRequest.ofSize(batchSize));
+                products.addAll(batch);
+                if (!batch.isEmpty()) {
+                    afterId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == batchSize);
+
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            CatalogFile.write(path, products, fingerprint);
+            current = new Mapped(CatalogFile.open(path), target);
+            log.info("Catalog file written: {} products in {} ms", products.size(), System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            log.error("Catalog file rewrite failed, reads fall back to the database", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdownNow();
+    }
+
+    private record Mapped(CatalogFile file, long generation) {
+    }
+}
@@ -0,0 +1,137 @@
+package com.dynamiconlineshopping.backend.cache;
+
+import com.dynamiconlineshopping.backend.dto.ProductDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * ProductCache - read-through caches for single products and catalog pages (Caffeine, W-TinyLFU).
+ *
+ * Every product write goes through {@link #write}. While a write is in flight, reads of that
+ * product (and of any catalog page) bypass the cache, and the entries are dropped both before
+ * and after the database call. A reader that loaded the old row just before the commit can
+ * therefore never leave it behind: a delete is invisible to cached reads as soon as it commits.
+ * Catalog pages are keyed by a generation number that each write bumps.
+ */
+@Component
+public class ProductCache {
+
+    private final Cache<Long, ProductDto> products;
+    private final Cache<String, Object> pages;
+    private final Map<Long, Integer> productsBeingWritten = new ConcurrentHashMap<>();
+    private final AtomicInteger catalogWritesInFlight = new AtomicInteger();
+    private final AtomicLong catalogGeneration = new AtomicLong();
+
+    public ProductCache(MeterRegistry meterRegistry,
+                        @Value("${app.cache.products.maxSize:10000}") long maxProducts,
+                        @Value("${app.cache.products.maxPages:1000}") long maxPages,
+                        @Value("${app.cache.products.ttlSeconds:600}") long ttlSeconds) {
+        this.products = Caffeine.newBuilder()
+                .maximumSize(maxProducts)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(maxPages)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, products, "products");
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "productPages");
+    }
+
+    // Loader exceptions (e.g. not found) propagate and nothing is cached
+    public ProductDto getById(Long id, Function<Long, ProductDto> loader) {
+        if (productsBeingWritten.containsKey(id)) {
+            return loader.apply(id);
+        }
+        return products.get(id, loader);
+    }
+
+    // Multi-get: one loader call for all ids not cached (or being written); ids the loader does not return are misses
+    public Map<Long, ProductDto> getByIds(Collection<Long> ids, Function<Set<Long>, Map<Long, ProductDto>> loader) {
+        Set<Long> cacheable = new LinkedHashSet<>();
+        Set<Long> bypass = new LinkedHashSet<>();
+        for (Long id : ids) {
+            (productsBeingWritten.containsKey(id) ? bypass : cacheable).add(id);
+        }
+        Map<Long, ProductDto> found = new HashMap<>(products.getAll(cacheable, missing -> loader.apply(new HashSet<>(missing))));
+        if (!bypass.isEmpty()) {
+            found.putAll(loader.apply(bypass));
+        }
+        return found;
+    }
+
+    // Cached product if present, without loading it; null while it is being written
+    public ProductDto peek(Long id) {
+        if (productsBeingWritten.containsKey(id)) {
+            return null;
+        }
+        return products.getIfPresent(id);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T getPage(String key, Supplier<T> loader) {
+        if (catalogWritesInFlight.get() > 0) {
+            return loader.get();
+        }
+        return (T) pages.get(catalogGeneration.get() + "|" + key, k -> loader.get());
+    }
+
+    // Runs a product write; productId is null for creates, which only affect catalog pages
+    public <T> T write(Long productId, Supplier<T> action) {
+        beginWrite(productId);
+        try {
+            return action.get();
+        } finally {
+            endWrite(productId);
+        }
+    }
+
+    // Changes whenever a product write starts or ends; lets callers tell loads begun before a write apart
+    public long writeGeneration() {
+        return catalogGeneration.get();
+    }
+
+    public void invalidateAll() {
+        products.invalidateAll();
+        catalogGeneration.incrementAndGet();
+        pages.invalidateAll();
+    }
+
+    private void beginWrite(Long productId) {
+        catalogWritesInFlight.incrementAndGet();
+        catalogGeneration.incrementAndGet();
+        if (productId != null) {
+            productsBeingWritten.merge(productId, 1, Integer::sum);
+            // waits for an in-flight load of this key, then drops it
+            products.invalidate(productId);
+        }
+    }
+
+    private void endWrite(Long productId) {
+        if (productId != null) {
+            products.invalidate(productId);
+            productsBeingWritten.computeIfPresent(productId, (id, count) -> count == 1 ? null : count - 1);
+        }
+        catalogGeneration.incrementAndGet();
+        catalogWritesInFlight.decrementAndGet();
+    }
+}
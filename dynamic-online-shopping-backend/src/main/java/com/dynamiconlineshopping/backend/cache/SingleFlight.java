@@ -0,0 +1,91 @@
+package com.dynamiconlineshopping.backend.cache;
+
+import com.dynamiconlineshopping.backend.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * SingleFlight - collapses concurrent loads of the same key into one.
+ *
+ * The first caller for a (name, key) runs the loader on its own thread; callers arriving while it
+ * runs wait for that result (or exception) instead of starting their own load. Waiters give up
+ * after their timeout with a 429 so a stuck load cannot pile up request threads. Nothing is kept
+ * once the load finishes: this is not a cache, it only de-duplicates work in flight.
+ * Metrics: singleflight.calls{name, result=leader|collapsed|timeout} and singleflight.inflight.
+ */
+@Component
+public class SingleFlight {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<FlightKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public SingleFlight(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("singleflight.inflight", inFlight, Map::size)
+                .description("Loads currently shared by single-flight callers")
+                .register(meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String name, Object key, Duration timeout, Supplier<T> loader) {
+        FlightKey flightKey = new FlightKey(name, key);
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(flightKey, mine);
+
+        if (leader == null) {
+            count(name, "leader");
+            try {
+                T value = loader.get();
+                mine.complete(value);
+                return value;
+            } catch (RuntimeException | Error e) {
+                mine.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(flightKey, mine);
+            }
+        }
+
+        count(name, "collapsed");
+        try {
+            return (T) leader.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            count(name, "timeout");
+            throw new TooManyRequestsException("Timed out waiting for " + name + ", please retry", 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TooManyRequestsException("Interrupted waiting for " + name, 1);
+        } catch (ExecutionException e) {
+            // waiters see the leader's failure as is, e.g. ResourceNotFoundException
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void count(String name, String result) {
+        counters.computeIfAbsent(name + '|' + result, k -> Counter.builder("singleflight.calls")
+                .tag("name", name)
+                .tag("result", result)
+                .register(meterRegistry)).increment();
+    }
+
+    private record FlightKey(String name, Object key) {
+    }
+}
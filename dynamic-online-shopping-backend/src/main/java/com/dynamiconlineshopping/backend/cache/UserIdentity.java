@@ -0,0 +1,24 @@
+package com.dynamiconlineshopping.backend.cache;
+
+import com.dynamiconlineshopping.backend.entity.User;
+import com.dynamiconlineshopping.backend.enums.Role;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * UserIdentity - immutable snapshot of the user columns needed for authentication and FK use.
+ * Cached instead of the entity so callers can never mutate shared state.
+ */
+@Getter
+@AllArgsConstructor
+public class UserIdentity {
+    private final Long id;
+    private final String email;
+    private final String password;
+    private final String fullName;
+    private final Role role;
+
+    public static UserIdentity from(User user) {
+        return new UserIdentity(user.getId(), user.getEmail(), user.getPassword(), user.getFullName(), user.getRole());
+    }
+}
@@ -0,0 +1,57 @@
+package com.dynamiconlineshopping.backend.cache;
+
+import com.dynamiconlineshopping.backend.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * UserIdentityCache - single read-through cache in front of UserRepository.findByEmail.
+ *
+ * Only hits are cached (a missing email is always re-checked). Anything that changes a user's
+ * email, password or role must call {@link #invalidate(String)}.
+ */
+@Component
+public class UserIdentityCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, UserIdentity> cache;
+
+    public UserIdentityCache(UserRepository userRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.cache.users.maxSize:10000}") long maxSize,
+                             @Value("${app.cache.users.ttlSeconds:600}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userIdentity");
+    }
+
+    public Optional<UserIdentity> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        // Atomic per key: a concurrent invalidate() waits for the load instead of racing it
+        return Optional.ofNullable(cache.get(email, key ->
+                userRepository.findByEmail(key).map(UserIdentity::from).orElse(null)));
+    }
+
+    public void invalidate(String email) {
+        if (email != null) {
+            cache.invalidate(email);
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
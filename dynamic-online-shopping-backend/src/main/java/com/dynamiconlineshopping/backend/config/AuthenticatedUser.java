@@ -0,0 +1,29 @@
+package com.dynamiconlineshopping.backend.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+import java.io.Serializable;
+
+/**
+ * AuthenticatedUser - principal built from JWT claims, so services can use the user id without a lookup.
+ */
+@Getter
+@AllArgsConstructor
+public class AuthenticatedUser implements AuthenticatedPrincipal, Serializable {
+
+    private final Long id;      // null for tokens issued before the uid claim existed
+    private final String email;
+    private final String role;
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    @Override
+    public String toString() {
+        return email;
+    }
+}
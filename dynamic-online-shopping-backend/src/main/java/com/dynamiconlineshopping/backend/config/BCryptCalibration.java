@@ -0,0 +1,64 @@
+package com.dynamiconlineshopping.backend.config;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.stereotype.Component;
+
+/**
+ * BCryptCalibration - picks the BCrypt work factor at startup so one hash takes roughly
+ * app.auth.bcrypt.targetMs on the current CPU. A fixed app.auth.bcrypt.strength skips calibration.
+ */
+@Slf4j
+@Component
+@Getter
+public class BCryptCalibration {
+
+    private static final String SAMPLE_PASSWORD = "calibration-sample-password";
+
+    private final int strength;
+    private final long measuredMs;
+
+    public BCryptCalibration(@Value("${app.auth.bcrypt.strength:0}") int fixedStrength,
+                             @Value("${app.auth.bcrypt.targetMs:150}") long targetMs,
+                             @Value("${app.auth.bcrypt.minStrength:10}") int minStrength,
+                             @Value("${app.auth.bcrypt.maxStrength:16}") int maxStrength) {
+        if (fixedStrength > 0) {
+            this.strength = fixedStrength;
+            this.measuredMs = -1;
+        } else {
+            int[] result = calibrate(targetMs, minStrength, maxStrength);
+            this.strength = result[0];
+            this.measuredMs = result[1];
+        }
+        if (measuredMs >= 0) {
+            log.info("BCrypt strength {} ({} ms per hash, target {} ms)", strength, measuredMs, targetMs);
+        } else {
+            log.info("BCrypt strength {} (fixed)", strength);
+        }
+    }
+
+    // Each +1 doubles the cost, so step up while the next strength lands closer to the target (log scale)
+    static int[] calibrate(long targetMs, int minStrength, int maxStrength) {
+        BCrypt.hashpw(SAMPLE_PASSWORD, BCrypt.gensalt(4)); // warm-up
+
+        int strength = minStrength;
+        long elapsed = measure(strength);
+        while (strength < maxStrength && elapsed * Math.sqrt(2) < targetMs) {
+            strength++;
+            elapsed = measure(strength);
+        }
+        return new int[]{strength, (int) elapsed};
+    }
+
+    private static long measure(int strength) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 2; i++) {
+            long start = System.nanoTime();
+            BCrypt.hashpw(SAMPLE_PASSWORD, BCrypt.gensalt(strength));
+            best = Math.min(best, (System.nanoTime() - start) / 1_000_000);
+        }
+        return best;
+    }
+}
@@ -1,10 +1,12 @@
 package com.dynamiconlineshopping.backend.config;
 
+import com.dynamiconlineshopping.backend.cache.UserIdentityCache;
 import com.dynamiconlineshopping.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -13,13 +15,14 @@ import java.util.Collections;
 
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final UserIdentityCache userIdentityCache;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        return userRepository.findByEmail(email)
+        return userIdentityCache.findByEmail(email)
                 .map(user -> new User(
                         user.getEmail(),
                         user.getPassword(),
@@ -27,4 +30,17 @@ public class CustomUserDetailsService implements UserDetailsService {
                 ))
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
     }
+
+    // Called by DaoAuthenticationProvider after a successful login whose hash cost needs changing
+    @Override
+    public UserDetails updatePassword(UserDetails details, String newPassword) {
+        return userRepository.findByEmail(details.getUsername())
+                .map(user -> {
+                    user.setPassword(newPassword);
+                    userRepository.save(user);
+                    userIdentityCache.invalidate(user.getEmail());
+                    return User.withUserDetails(details).password(newPassword).build();
+                })
+                .orElse(details);
+    }
 }
\ No newline at end of file
@@ -9,6 +9,7 @@ import com.dynamiconlineshopping.backend.enums.OrderStatus;
 import com.dynamiconlineshopping.backend.entity.Order;
 import com.dynamiconlineshopping.backend.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
@@ -16,6 +17,7 @@ import org.springframework.stereotype.Component;
 import java.util.Arrays;
 import java.util.List;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class DataSeeder implements CommandLineRunner {
@@ -30,7 +32,7 @@ public class DataSeeder implements CommandLineRunner {
         createUsers();
         createProducts();
         createSampleOrders();
-        System.out.println("✅ Data seeding completed successfully!");
+        log.info("Data seeding completed");
     }
 
     private void createUsers() {
@@ -59,7 +61,7 @@ public class DataSeeder implements CommandLineRunner {
             );
 
             userRepository.saveAll(users);
-            System.out.println("👥 Users created: Admin, Customer");
+            log.info("Users created: Admin, Customer");
         }
     }
 
@@ -212,7 +214,7 @@ public class DataSeeder implements CommandLineRunner {
             );
 
             productRepository.saveAll(products);
-            System.out.println("📦 Products created: 20 common e-commerce products");
+            log.info("Products created: 20 common e-commerce products");
         }
     }
 
@@ -259,7 +261,7 @@ public class DataSeeder implements CommandLineRunner {
             );
 
             orderRepository.saveAll(orders);
-            System.out.println("📋 Sample orders created with all status types");
+            log.info("Sample orders created with all status types");
         }
     }
 }
\ No newline at end of file
@@ -1,10 +1,12 @@
 package com.dynamiconlineshopping.backend.config;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
@@ -17,12 +19,15 @@ import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService customUserDetailsService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationList tokenRevocationList;
 
     @Override
     protected void doFilterInternal(
@@ -34,11 +39,8 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         final String authHeader = request.getHeader("Authorization");
         final String tokenPrefix = "Bearer ";
 
-        System.out.println("🔐 JwtAuthFilter - Processing request: " + request.getRequestURI());
-        System.out.println("🔐 Authorization header: " + authHeader);
-
         if (authHeader == null || !authHeader.startsWith(tokenPrefix)) {
-            System.out.println("🔐 No valid Authorization header found");
+            log.debug("No bearer token on {}", request.getRequestURI());
             filterChain.doFilter(request, response);
             return;
         }
@@ -46,35 +48,62 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         String token = authHeader.substring(tokenPrefix.length());
 
         try {
-            String username = jwtUtil.extractUsername(token);
-            String role = jwtUtil.extractRole(token);
-
-            System.out.println("🔐 Extracted username: " + username);
-            System.out.println("🔐 Extracted role: " + role);
-
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                VerifiedTokenCache.VerifiedToken verified = verifiedTokenCache.get(token);
+                if (verified == null) {
+                    verified = verify(token);
+                }
 
-                var userDetails = customUserDetailsService.loadUserByUsername(username);
+                if (verified != null && tokenRevocationList.isRevoked(
+                        verified.getTokenId(), verified.getUserId(), verified.getIssuedAtMillis())) {
+                    log.debug("Revoked token presented for user {} on {}", verified.getUsername(), request.getRequestURI());
+                    verified = null;
+                }
 
-                if (jwtUtil.validateToken(token)) {
+                if (verified != null) {
                     List<GrantedAuthority> authorities = Collections.singletonList(
-                            new SimpleGrantedAuthority("ROLE_" + role)
+                            new SimpleGrantedAuthority("ROLE_" + verified.getRole())
                     );
+                    AuthenticatedUser principal = new AuthenticatedUser(
+                            verified.getUserId(), verified.getUsername(), verified.getRole());
 
                     UsernamePasswordAuthenticationToken authToken =
                             new UsernamePasswordAuthenticationToken(
-                                    userDetails,
+                                    principal,
                                     null,
                                     authorities
                             );
                     SecurityContextHolder.getContext().setAuthentication(authToken);
-                    System.out.println("🔐 Authentication SUCCESS for user: " + username + " with role: " + role);
+                    log.debug("Authenticated {} with role {} on {}", verified.getUsername(), verified.getRole(), request.getRequestURI());
                 }
             }
         } catch (Exception e) {
-            System.out.println("🔐 JWT validation failed: " + e.getMessage());
+            log.debug("JWT validation failed on {}: {}", request.getRequestURI(), e.getMessage());
         }
 
         filterChain.doFilter(request, response);
     }
+
+    // Cache miss: one parse (signature + expiry) and one user lookup, then remember the result
+    private VerifiedTokenCache.VerifiedToken verify(String token) {
+        Claims claims = jwtUtil.extractAllClaims(token);
+        String username = claims.getSubject();
+        String role = claims.get(JwtUtil.ROLE_CLAIM, String.class);
+        Long userId = claims.get(JwtUtil.USER_ID_CLAIM, Long.class);
+
+        if (username == null) {
+            return null;
+        }
+
+        customUserDetailsService.loadUserByUsername(username);
+
+        // Tokens minted before iat_ms existed fall back to iat, truncated to the start of its second
+        Long issuedAtMs = claims.get(JwtUtil.ISSUED_AT_MS_CLAIM, Long.class);
+        long issuedAtMillis = issuedAtMs != null ? issuedAtMs
+                : claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : 0L;
+        VerifiedTokenCache.VerifiedToken verified = new VerifiedTokenCache.VerifiedToken(
+                claims.getId(), userId, username, role, issuedAtMillis, claims.getExpiration().getTime());
+        verifiedTokenCache.put(token, verified);
+        return verified;
+    }
 }
\ No newline at end of file
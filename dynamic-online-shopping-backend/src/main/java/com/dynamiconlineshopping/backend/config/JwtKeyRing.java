@@ -0,0 +1,103 @@
+package com.dynamiconlineshopping.backend.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.Key;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JwtKeyRing - pre-decoded HMAC keys indexed by "kid".
+ *
+ * Tokens are signed with the active key; verification accepts any key that has not passed its
+ * retirement time, so a secret can be rotated node by node without invalidating live sessions.
+ * Retired keys are configured as "kid:base64Secret:retireAtIso8601" entries, comma separated.
+ */
+@Component
+public class JwtKeyRing {
+
+    private final String activeKid;
+    private final Map<String, KeyEntry> keys;
+    private final JwtParser parser;
+
+    public JwtKeyRing(@Value("${app.jwt.secret}") String activeSecret,
+                      @Value("${app.jwt.activeKid:k1}") String activeKid,
+                      @Value("${app.jwt.retiredKeys:}") String retiredKeys) {
+        Map<String, KeyEntry> ring = new LinkedHashMap<>();
+        ring.put(activeKid, new KeyEntry(activeKid, decode(activeSecret), Instant.MAX));
+
+        for (String spec : retiredKeys.split(",")) {
+            if (spec.isBlank()) {
+                continue;
+            }
+            String[] parts = spec.trim().split(":", 3);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid app.jwt.retiredKeys entry, expected kid:secret:retireAt");
+            }
+            if (!ring.containsKey(parts[0])) {
+                ring.put(parts[0], new KeyEntry(parts[0], decode(parts[1]), Instant.parse(parts[2])));
+            }
+        }
+
+        this.activeKid = activeKid;
+        this.keys = Collections.unmodifiableMap(ring);
+        // JwtParser is immutable and thread-safe, so one instance serves every request
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return verificationKey(header.getKeyId());
+                    }
+                })
+                .build();
+    }
+
+    public String getActiveKid() {
+        return activeKid;
+    }
+
+    public Key getActiveKey() {
+        return keys.get(activeKid).getKey();
+    }
+
+    public JwtParser parser() {
+        return parser;
+    }
+
+    // Tokens without a kid predate the key ring and were signed with the active secret
+    Key verificationKey(String kid) {
+        KeyEntry entry = keys.get(kid == null ? activeKid : kid);
+        if (entry == null) {
+            throw new JwtException("Unknown signing key: " + kid);
+        }
+        if (!Instant.now().isBefore(entry.getRetireAt())) {
+            throw new JwtException("Signing key retired: " + kid);
+        }
+        return entry.getKey();
+    }
+
+    private static Key decode(String base64Secret) {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret));
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class KeyEntry {
+        private final String kid;
+        private final Key key;
+        private final Instant retireAt;
+    }
+}
@@ -1,38 +1,48 @@
 package com.dynamiconlineshopping.backend.config;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 @Component
+@RequiredArgsConstructor
 public class JwtUtil {
 
-    @Value("${app.jwt.secret}")
-    private String secretKey;
+    public static final String ROLE_CLAIM = "role";
+    public static final String USER_ID_CLAIM = "uid";
+    // iat only has second precision; revocation cutoffs need the exact issue time
+    public static final String ISSUED_AT_MS_CLAIM = "iat_ms";
+
+    private final JwtKeyRing keyRing;
 
     @Value("${app.jwt.expirationMs}")
     private long jwtExpirationMs;
 
-    // Generate token with username and role
-    public String generateToken(String username, String role) {
+    // Generate token with username, role, numeric user id and a unique jti (used for revocation)
+    public String generateToken(String username, String role, Long userId) {
+        long now = System.currentTimeMillis();
         Map<String, Object> claims = new HashMap<>();
-        claims.put("role", role);
+        claims.put(ROLE_CLAIM, role);
+        claims.put(USER_ID_CLAIM, userId);
+        claims.put(ISSUED_AT_MS_CLAIM, now);
 
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, keyRing.getActiveKid())
                 .setClaims(claims)
                 .setSubject(username)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setId(UUID.randomUUID().toString())
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + jwtExpirationMs))
+                .signWith(keyRing.getActiveKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -43,7 +53,12 @@ public class JwtUtil {
 
     // Extract role from token
     public String extractRole(String token) {
-        return extractAllClaims(token).get("role", String.class);
+        return extractAllClaims(token).get(ROLE_CLAIM, String.class);
+    }
+
+    // Extract user id from token (null for tokens issued without it)
+    public Long extractUserId(String token) {
+        return extractAllClaims(token).get(USER_ID_CLAIM, Long.class);
     }
 
     // Validate Token
@@ -60,18 +75,10 @@ public class JwtUtil {
         return extractAllClaims(token).getExpiration().before(new Date());
     }
 
-    // Extract all claims
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
+    // Extract all claims (verifies signature and expiry in a single parse, using the shared parser)
+    public Claims extractAllClaims(String token) {
+        return keyRing.parser()
                 .parseClaimsJws(token)
                 .getBody();
     }
-
-    // Decode and return signing key
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,35 @@
+package com.dynamiconlineshopping.backend.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * LogSamplingEndpoint - /actuator/logsampling, reads and changes sampling rates at runtime.
+ * Levels themselves are changed through the standard /actuator/loggers endpoint.
+ */
+@Component
+@Endpoint(id = "logsampling")
+@RequiredArgsConstructor
+public class LogSamplingEndpoint {
+
+    private final LogSamplingFilter logSamplingFilter;
+
+    @ReadOperation
+    public Map<String, Double> rates() {
+        return logSamplingFilter.getRates();
+    }
+
+    // POST {"rate": 0.05} to sample a category; omit rate to stop sampling it
+    @WriteOperation
+    public Map<String, Double> setRate(@Selector String category, @Nullable Double rate) {
+        logSamplingFilter.setRate(category, rate);
+        return logSamplingFilter.getRates();
+    }
+}
@@ -0,0 +1,136 @@
+package com.dynamiconlineshopping.backend.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.LoggerFactory;
+import org.slf4j.Marker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * LogSamplingFilter - keeps a fraction of DEBUG/INFO events per logger category.
+ *
+ * Rates are configured as "category=rate" pairs (rate between 0 and 1) and apply to the category and
+ * everything below it, like logger levels. WARN and ERROR are never sampled. Rates can be replaced at
+ * runtime through the logsampling actuator endpoint; the hot path only reads a volatile map.
+ * The per-logger memo lives next to the rates it was computed from, so replacing the rates drops it
+ * atomically and a lookup racing setRate can never memoise an answer from the old rates.
+ */
+@Component
+public class LogSamplingFilter extends TurboFilter {
+
+    private volatile Rates current;
+
+    public LogSamplingFilter(@Value("${app.logging.sampling:}") String sampling) {
+        this.current = new Rates(parse(sampling));
+        setName("sampling");
+    }
+
+    @PostConstruct
+    public void register() {
+        if (LoggerFactory.getILoggerFactory() instanceof LoggerContext context) {
+            context.addTurboFilter(this);
+            start();
+        }
+    }
+
+    @PreDestroy
+    public void unregister() {
+        if (LoggerFactory.getILoggerFactory() instanceof LoggerContext context) {
+            context.getTurboFilterList().remove(this);
+        }
+        stop();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format is null for isXxxEnabled() checks; only sample actual log calls so guards don't double-sample
+        Rates snapshot = current;
+        if (format == null || level == null || level.isGreaterOrEqual(Level.WARN) || snapshot.configured.isEmpty()) {
+            return FilterReply.NEUTRAL;
+        }
+        double rate = snapshot.rateFor(logger.getName());
+        if (rate >= 1.0) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextDouble() < rate ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    public Map<String, Double> getRates() {
+        return current.configured;
+    }
+
+    // Synchronized so concurrent updates don't lose each other; readers never block
+    public synchronized void setRate(String category, Double rate) {
+        Map<String, Double> updated = new LinkedHashMap<>(current.configured);
+        if (rate == null) {
+            updated.remove(category);
+        } else {
+            updated.put(category, Math.max(0.0, Math.min(1.0, rate)));
+        }
+        this.current = new Rates(Collections.unmodifiableMap(updated));
+    }
+
+    static Map<String, Double> parse(String spec) {
+        Map<String, Double> parsed = new LinkedHashMap<>();
+        for (String entry : spec.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.trim().split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid app.logging.sampling entry, expected category=rate");
+            }
+            parsed.put(parts[0].trim(), Math.max(0.0, Math.min(1.0, Double.parseDouble(parts[1].trim()))));
+        }
+        return Collections.unmodifiableMap(parsed);
+    }
+
+    /**
+     * Rates - configured rates plus the per-logger answers derived from exactly those rates.
+     */
+    private static final class Rates {
+
+        private final Map<String, Double> configured;
+        private final Map<String, Double> resolved = new ConcurrentHashMap<>();
+
+        Rates(Map<String, Double> configured) {
+            this.configured = configured;
+        }
+
+        // Nearest configured ancestor wins; the answer is memoised per logger name
+        double rateFor(String loggerName) {
+            Double cached = resolved.get(loggerName);
+            if (cached != null) {
+                return cached;
+            }
+            double rate = 1.0;
+            String name = loggerName;
+            while (true) {
+                Double rateForName = configured.get(name);
+                if (rateForName != null) {
+                    rate = rateForName;
+                    break;
+                }
+                int dot = name.lastIndexOf('.');
+                if (dot < 0) {
+                    break;
+                }
+                name = name.substring(0, dot);
+            }
+            resolved.put(loggerName, rate);
+            return rate;
+        }
+    }
+}
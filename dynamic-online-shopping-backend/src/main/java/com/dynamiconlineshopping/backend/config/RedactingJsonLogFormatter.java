@@ -0,0 +1,92 @@
+package com.dynamiconlineshopping.backend.config;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import org.springframework.boot.logging.structured.StructuredLogFormatter;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * RedactingJsonLogFormatter - one JSON object per log line, with bearer tokens and JWTs masked.
+ *
+ * Runs on the async appender's worker thread (see logback-spring.xml), so redaction and
+ * serialization cost nothing on request threads.
+ */
+public class RedactingJsonLogFormatter implements StructuredLogFormatter<ILoggingEvent> {
+
+    private static final Pattern JWT = Pattern.compile("eyJ[A-Za-z0-9_-]+\\.[A-Za-z0-9_-]+\\.[A-Za-z0-9_-]*");
+    private static final Pattern BEARER = Pattern.compile("(?i)(bearer\\s+)[A-Za-z0-9._~+/=-]+");
+
+    @Override
+    public String format(ILoggingEvent event) {
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"@timestamp\":\"").append(Instant.ofEpochMilli(event.getTimeStamp())).append('"');
+        field(json, "level", event.getLevel().toString());
+        field(json, "thread", event.getThreadName());
+        field(json, "logger", event.getLoggerName());
+        field(json, "message", redact(event.getFormattedMessage()));
+
+        Map<String, String> mdc = event.getMDCPropertyMap();
+        if (mdc != null) {
+            mdc.forEach((key, value) -> field(json, key, redact(value)));
+        }
+
+        IThrowableProxy throwable = event.getThrowableProxy();
+        if (throwable != null) {
+            field(json, "error", redact(ThrowableProxyUtil.asString(throwable)));
+        }
+        return json.append("}\n").toString();
+    }
+
+    static String redact(String text) {
+        // most lines contain neither, so skip the regex work for them
+        if (text == null || (!text.contains("eyJ") && !containsIgnoreCase(text, "bearer"))) {
+            return text;
+        }
+        String masked = BEARER.matcher(text).replaceAll("$1[REDACTED]");
+        return JWT.matcher(masked).replaceAll("[REDACTED_JWT]");
+    }
+
+    private static boolean containsIgnoreCase(String text, String word) {
+        for (int i = 0; i <= text.length() - word.length(); i++) {
+            if (text.regionMatches(true, i, word, 0, word.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void field(StringBuilder json, String name, String value) {
+        if (value == null) {
+            return;
+        }
+        json.append(",\"");
+        escape(json, name);
+        json.append("\":\"");
+        escape(json, value);
+        json.append('"');
+    }
+
+    private static void escape(StringBuilder json, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.dynamiconlineshopping.backend.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * SchemaConstraints - repairs rows that would violate a unique index, then creates the index.
+ *
+ * ddl-auto=update only logs a warning when an index cannot be created over existing duplicates,
+ * so on an upgraded database the constraint would silently be missing. This runs before the
+ * data seeder and is a no-op once the data is clean and the index exists.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class SchemaConstraints implements CommandLineRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void run(String... args) {
+        uniqueProductSkus();
+        uniqueCartLines();
+    }
+
+    // Blank SKUs become null (any number allowed); later duplicates of a real SKU get their id appended
+    private void uniqueProductSkus() {
+        int blank = jdbcTemplate.update("update products set sku = null where sku is not null and trim(sku) = ''");
+        int renamed = jdbcTemplate.update("update products set sku = sku || '-' || id where sku is not null"
+                + " and exists (select 1 from products other where other.sku = products.sku and other.id < products.id)");
+        if (blank > 0 || renamed > 0) {
+            log.warn("Product SKUs repaired before indexing: {} blank set to null, {} duplicates renamed to SKU-id",
+                    blank, renamed);
+        }
+        jdbcTemplate.execute("create unique index if not exists uk_products_sku on products (sku)");
+    }
+
+    // CartRepository.upsert relies on ON CONFLICT (user_id, product_id); duplicate lines are merged
+    // into the oldest one (quantities summed) so the unique index can be built
+    private void uniqueCartLines() {
+        String sameLine = "from cart_items d where d.user_id = cart_items.user_id and d.product_id = cart_items.product_id";
+        jdbcTemplate.update("update cart_items set quantity = (select sum(coalesce(d.quantity, 0)) " + sameLine + ")"
+                + " where exists (select 1 " + sameLine + " and d.id > cart_items.id)"
+                + " and not exists (select 1 " + sameLine + " and d.id < cart_items.id)");
+        int merged = jdbcTemplate.update("delete from cart_items where exists (select 1 " + sameLine
+                + " and d.id < cart_items.id)");
+        if (merged > 0) {
+            log.warn("Cart lines merged before indexing: {} duplicate lines folded into their oldest line", merged);
+        }
+        jdbcTemplate.execute("create unique index if not exists uk_cart_items_user_product on cart_items (user_id, product_id)");
+    }
+}
@@ -0,0 +1,77 @@
+package com.dynamiconlineshopping.backend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * SqlStatementCountFilter - reports how many SQL statements each request ran.
+ *
+ * Runs ahead of the security chain so token checks are included. Requests over
+ * app.sql.statementWarnThreshold are logged at WARN (0 turns that off); with
+ * app.sql.statementCountHeader=true (meant for development) the count is also returned in the
+ * X-SQL-Statements header, taken when the response commits. The counter is optional so that
+ * web slice tests, which have no JPA, still get a working (pass-through) filter.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlStatementCountFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-SQL-Statements";
+
+    private final SqlStatementCounter counter;
+    private final boolean exposeHeader;
+    private final int warnThreshold;
+
+    public SqlStatementCountFilter(ObjectProvider<SqlStatementCounter> counter,
+                                   @Value("${app.sql.statementCountHeader:false}") boolean exposeHeader,
+                                   @Value("${app.sql.statementWarnThreshold:0}") int warnThreshold) {
+        this.counter = counter.getIfAvailable();
+        this.exposeHeader = exposeHeader;
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (counter == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long mark = counter.mark();
+        HttpServletResponse target = response;
+        if (exposeHeader) {
+            // headers can no longer change once the body starts, so the count is taken at that point
+            target = new OnCommittedResponseWrapper(response) {
+                @Override
+                protected void onResponseCommitted() {
+                    setHeader(HEADER, Long.toString(counter.since(mark)));
+                }
+            };
+        }
+        try {
+            chain.doFilter(request, target);
+        } finally {
+            long statements = counter.since(mark);
+            if (exposeHeader && !response.isCommitted()) {
+                response.setHeader(HEADER, Long.toString(statements));
+            }
+            if (warnThreshold > 0 && statements > warnThreshold) {
+                log.warn("{} {} ran {} SQL statements (threshold {})",
+                        request.getMethod(), request.getRequestURI(), statements, warnThreshold);
+            }
+        }
+    }
+}
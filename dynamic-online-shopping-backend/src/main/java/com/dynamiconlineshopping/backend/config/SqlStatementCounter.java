@@ -0,0 +1,41 @@
+package com.dynamiconlineshopping.backend.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * SqlStatementCounter - counts the SQL statements Hibernate prepares on the current thread.
+ *
+ * Registered as Hibernate's statement inspector, so it sees every JPQL, derived, native and
+ * flush statement. The count per thread only ever grows: callers take a mark() and read
+ * since(mark) afterwards, which lets the request filter and a test measure the same request
+ * without resetting each other. Work handed to other threads is not included.
+ */
+@Component
+public class SqlStatementCounter implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    public long mark() {
+        return COUNT.get()[0];
+    }
+
+    public long since(long mark) {
+        return COUNT.get()[0] - mark;
+    }
+}
@@ -0,0 +1,186 @@
+package com.dynamiconlineshopping.backend.config;
+
+import com.dynamiconlineshopping.backend.entity.RevokedToken;
+import com.dynamiconlineshopping.backend.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * TokenRevocationList - in-memory answer to "was this access token revoked?" with no query per request.
+ *
+ * Single tokens are revoked by jti: a Bloom filter answers the common "not revoked" case and an exact
+ * map confirms positives. Users are revoked with a "tokens issued before" timestamp (logout everywhere,
+ * role change). Entries drop out once every token they cover would have expired anyway. The revoked_tokens
+ * table is the source of truth: it is loaded on startup and polled so revocations made on other nodes
+ * show up within one sync interval. Polls re-read an overlapping revokedAt window rather than following
+ * ids, since IDENTITY ids are not committed in order; re-applying a row is a no-op.
+ */
+@Component
+public class TokenRevocationList {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final long accessTokenLifetimeMs;
+    private final int bloomBits;
+    private final long syncOverlapMs;
+
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();      // jti -> expiresAt
+    private final Map<Long, long[]> revokedUsers = new ConcurrentHashMap<>();       // userId -> {revokedBefore, expiresAt}
+    private volatile BloomFilter bloom;
+    private Instant lastSyncStartedAt = Instant.EPOCH;
+
+    public TokenRevocationList(RevokedTokenRepository revokedTokenRepository,
+                               @Value("${app.jwt.expirationMs}") long accessTokenLifetimeMs,
+                               @Value("${app.jwt.revocation.bloomBits:1048576}") int bloomBits,
+                               @Value("${app.jwt.revocation.syncOverlapMs:120000}") long syncOverlapMs) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.accessTokenLifetimeMs = accessTokenLifetimeMs;
+        this.bloomBits = bloomBits;
+        this.syncOverlapMs = syncOverlapMs;
+        this.bloom = new BloomFilter(bloomBits);
+    }
+
+    @PostConstruct
+    public void loadFromDatabase() {
+        sync();
+    }
+
+    // issuedAtMillis must be the exact issue time (iat_ms claim), not iat rounded to seconds
+    public boolean isRevoked(String tokenId, Long userId, long issuedAtMillis) {
+        if (userId != null) {
+            long[] cutoff = revokedUsers.get(userId);
+            if (cutoff != null && issuedAtMillis < cutoff[0]) {
+                return true;
+            }
+        }
+        if (tokenId == null || !bloom.mightContain(tokenId)) {
+            return false;
+        }
+        return revokedTokens.containsKey(tokenId);
+    }
+
+    public void revokeToken(String tokenId, Instant tokenExpiresAt) {
+        if (tokenId == null || !tokenExpiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        revokedTokenRepository.save(RevokedToken.builder()
+                .tokenId(tokenId)
+                .revokedAt(Instant.now())
+                .expiresAt(tokenExpiresAt)
+                .build());
+        addToken(tokenId, tokenExpiresAt.toEpochMilli());
+    }
+
+    // Invalidates every access token of the user issued up to now
+    public void revokeUser(Long userId) {
+        Instant now = Instant.now();
+        revokedTokenRepository.save(RevokedToken.builder()
+                .userId(userId)
+                .revokedAt(now)
+                .expiresAt(now.plusMillis(accessTokenLifetimeMs))
+                .build());
+        addUser(userId, now.toEpochMilli(), now.toEpochMilli() + accessTokenLifetimeMs);
+    }
+
+    // Picks up revocations written by other nodes; the overlap covers commit delay and clock skew between nodes
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.syncIntervalMs:30000}",
+            initialDelayString = "${app.jwt.revocation.syncIntervalMs:30000}")
+    public synchronized void sync() {
+        Instant startedAt = Instant.now();
+        Instant since = lastSyncStartedAt.equals(Instant.EPOCH)
+                ? Instant.EPOCH
+                : lastSyncStartedAt.minusMillis(syncOverlapMs);
+        for (RevokedToken row : revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(since, startedAt)) {
+            if (row.getTokenId() != null) {
+                addToken(row.getTokenId(), row.getExpiresAt().toEpochMilli());
+            } else if (row.getUserId() != null) {
+                addUser(row.getUserId(), row.getRevokedAt().toEpochMilli(), row.getExpiresAt().toEpochMilli());
+            }
+        }
+        lastSyncStartedAt = startedAt;
+    }
+
+    // Drops expired entries and rebuilds the Bloom filter (bits cannot be cleared individually)
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.purgeIntervalMs:600000}",
+            initialDelayString = "${app.jwt.revocation.purgeIntervalMs:600000}")
+    public synchronized void purgeExpired() {
+        long now = System.currentTimeMillis();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+        revokedUsers.values().removeIf(cutoff -> cutoff[1] <= now);
+
+        BloomFilter rebuilt = new BloomFilter(bloomBits);
+        revokedTokens.keySet().forEach(rebuilt::add);
+        bloom = rebuilt;
+
+        revokedTokenRepository.deleteExpired(Instant.ofEpochMilli(now));
+    }
+
+    // Same lock as purgeExpired, so a revocation cannot land in a filter that is about to be replaced
+    private synchronized void addToken(String tokenId, long expiresAtMillis) {
+        // exact set first, so a Bloom hit is always backed by an entry
+        revokedTokens.put(tokenId, expiresAtMillis);
+        bloom.add(tokenId);
+    }
+
+    private void addUser(Long userId, long revokedBeforeMillis, long expiresAtMillis) {
+        revokedUsers.merge(userId, new long[]{revokedBeforeMillis, expiresAtMillis},
+                (a, b) -> a[0] >= b[0] ? a : b);
+    }
+
+    /**
+     * Fixed-size Bloom filter over token ids, k = 4 probes from two 32-bit hashes.
+     */
+    static final class BloomFilter {
+
+        private static final int PROBES = 4;
+
+        private final AtomicLongArray words;
+        private final int bits;
+
+        BloomFilter(int bits) {
+            this.bits = Math.max(64, bits);
+            this.words = new AtomicLongArray((this.bits + 63) / 64);
+        }
+
+        void add(String key) {
+            int h1 = key.hashCode();
+            int h2 = mix(h1);
+            for (int i = 0; i < PROBES; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bits);
+                long mask = 1L << (bit & 63);
+                int index = bit >>> 6;
+                long current;
+                do {
+                    current = words.get(index);
+                } while ((current & mask) == 0 && !words.compareAndSet(index, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String key) {
+            int h1 = key.hashCode();
+            int h2 = mix(h1);
+            for (int i = 0; i < PROBES; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bits);
+                if ((words.get(bit >>> 6) & (1L << (bit & 63))) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int mix(int h) {
+            h ^= h >>> 16;
+            h *= 0x85ebca6b;
+            h ^= h >>> 13;
+            h *= 0xc2b2ae35;
+            h ^= h >>> 16;
+            return h | 1;
+        }
+    }
+}
@@ -8,6 +8,7 @@ import com.dynamiconlineshopping.backend.service.OrderService;
 import com.dynamiconlineshopping.backend.service.ProductService;
 import com.dynamiconlineshopping.backend.service.UserService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -15,6 +16,7 @@ import org.springframework.web.bind.annotation.*;
 import java.util.List;
 import java.util.Map;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/admin")
 @RequiredArgsConstructor
@@ -63,7 +65,7 @@ public class AdminController {
     @PutMapping("/orders/{orderId}/status")
     public OrderResponseDto updateOrderStatus(@PathVariable Long orderId, @RequestBody Map<String, String> request) {
         String status = request.get("status");
-        System.out.println("Updating order " + orderId + " to status: " + status);
+        log.info("Updating order {} to status {}", orderId, status);
         return orderService.updateOrderStatus(orderId, OrderStatus.valueOf(status.toUpperCase()));
     }
 
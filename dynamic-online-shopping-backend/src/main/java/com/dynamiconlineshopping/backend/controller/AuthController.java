@@ -8,8 +8,10 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 /**
- * AuthController - handles registration and login.
+ * AuthController - handles registration, login, access-token refresh and logout.
  */
 @RestController
 @RequestMapping("/api/auth")
@@ -30,7 +32,19 @@ public class AuthController {
 
     @PostMapping("/refresh")
     public ResponseEntity<?> refreshToken(@RequestHeader("Authorization") String refreshTokenHeader) {
-        // Optional: implement token refresh using authService
-        return ResponseEntity.badRequest().body("Not implemented");
+        String refreshToken = refreshTokenHeader.startsWith("Bearer ")
+                ? refreshTokenHeader.substring("Bearer ".length())
+                : refreshTokenHeader;
+        return ResponseEntity.ok(authService.refresh(refreshToken));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader("Authorization") String authHeader,
+                                    @RequestBody(required = false) Map<String, String> body) {
+        String accessToken = authHeader.startsWith("Bearer ")
+                ? authHeader.substring("Bearer ".length())
+                : authHeader;
+        String refreshToken = body != null ? body.get("refreshToken") : null;
+        return ResponseEntity.ok(authService.logout(accessToken, refreshToken));
     }
 }
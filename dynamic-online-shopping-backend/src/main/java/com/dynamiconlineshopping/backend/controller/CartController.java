@@ -1,6 +1,7 @@
 package com.dynamiconlineshopping.backend.controller;
 
 import com.dynamiconlineshopping.backend.dto.CartItemDto;
+import com.dynamiconlineshopping.backend.dto.CartOperation;
 import com.dynamiconlineshopping.backend.service.CartService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -31,6 +32,12 @@ public class CartController {
         return ResponseEntity.status(201).body(cartService.addItem(dto));
     }
 
+    // Many line changes in one request and one transaction; returns the resulting cart
+    @PatchMapping
+    public ResponseEntity<List<CartItemDto>> applyOperations(@RequestBody List<CartOperation> operations) {
+        return ResponseEntity.ok(cartService.applyOperations(operations));
+    }
+
     @PutMapping("/{cartItemId}")
 //    @PreAuthorize("hasAuthority('CUSTOMER')")
     public ResponseEntity<List<CartItemDto>> updateCartItem(@PathVariable Long cartItemId, @RequestBody CartItemDto dto) {
@@ -0,0 +1,43 @@
+package com.dynamiconlineshopping.backend.controller;
+
+import com.dynamiconlineshopping.backend.dto.CategoryDto;
+import com.dynamiconlineshopping.backend.dto.ProductPage;
+import com.dynamiconlineshopping.backend.service.CategoryService;
+import com.dynamiconlineshopping.backend.service.ProductService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * CategoryController - category tree and category product listings.
+ */
+@RestController
+@RequestMapping("/api/categories")
+@RequiredArgsConstructor
+public class CategoryController {
+
+    private final CategoryService categoryService;
+    private final ProductService productService;
+
+    @GetMapping
+    public ResponseEntity<List<CategoryDto>> getTree() {
+        return ResponseEntity.ok(categoryService.getTree());
+    }
+
+    // Keyset pages over the category and its subcategories; pass nextCursor back as cursor
+    @GetMapping("/{id}/products")
+    public ResponseEntity<ProductPage> getProducts(@PathVariable Long id,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(productService.getByCategory(id, cursor, limit));
+    }
+
+    @PostMapping
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<CategoryDto> create(@RequestBody CategoryDto dto) {
+        return ResponseEntity.status(201).body(categoryService.create(dto));
+    }
+}
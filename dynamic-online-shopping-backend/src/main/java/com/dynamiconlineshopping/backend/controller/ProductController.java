@@ -1,32 +1,112 @@
 package com.dynamiconlineshopping.backend.controller;
 
+import com.dynamiconlineshopping.backend.cache.CatalogETags;
+import com.dynamiconlineshopping.backend.cache.CatalogSnapshot;
 import com.dynamiconlineshopping.backend.dto.ProductDto;
+import com.dynamiconlineshopping.backend.dto.ProductPage;
+import com.dynamiconlineshopping.backend.dto.ProductPageRequest;
+import com.dynamiconlineshopping.backend.dto.ProductSearchPage;
+import com.dynamiconlineshopping.backend.dto.ProductSuggestion;
+import com.dynamiconlineshopping.backend.dto.ProductVersion;
+import com.dynamiconlineshopping.backend.enums.ProductSort;
+import com.dynamiconlineshopping.backend.exception.BadRequestException;
 import com.dynamiconlineshopping.backend.service.ProductService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
 import java.util.List;
 
 /**
  * ProductController - DTO-only controllers for product operations.
+ *
+ * Catalog reads carry strong ETags (and Last-Modified for single products) with
+ * "Cache-Control: no-cache, public", so browsers and the CDN revalidate instead of refetching.
+ * A matching If-None-Match gets a 304 without the body being serialized; for a single product
+ * it is decided from the version alone, without loading the product. The unpaged catalog is
+ * written from a pre-rendered snapshot (gzip when the client accepts it) whenever one is current.
  */
 @RestController
 @RequestMapping("/api/products")
 @RequiredArgsConstructor
 public class ProductController {
 
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePublic();
+
     private final ProductService productService;
 
+    // Without paging parameters this keeps returning a plain (bounded) list for existing clients;
+    // any of sort/cursor/limit/filters switches to a keyset page with a nextCursor, and
+    // ids=1,2,3 and/or skus=A,B to a batch lookup in request order
     @GetMapping
-    public ResponseEntity<List<ProductDto>> getAllProducts() {
-        return ResponseEntity.ok(productService.getAll());
+    public ResponseEntity<?> getAllProducts(@RequestParam(required = false) List<Long> ids,
+                                            @RequestParam(required = false) List<String> skus,
+                                            @RequestParam(required = false) String sort,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) Integer limit,
+                                            @RequestParam(required = false) Double minPrice,
+                                            @RequestParam(required = false) Double maxPrice,
+                                            @RequestParam(required = false) Boolean inStock,
+                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        if (ids != null || skus != null) {
+            return ResponseEntity.ok(productService.getBatch(ids, skus));
+        }
+        if (sort == null && cursor == null && limit == null && minPrice == null && maxPrice == null && inStock == null) {
+            CatalogSnapshot.Rendered snapshot = productService.getCatalogSnapshot();
+            if (snapshot != null) {
+                return serveSnapshot(snapshot, ifNoneMatch, acceptEncoding);
+            }
+            List<ProductDto> all = productService.getAll();
+            String tag = CatalogETags.list(all, null, 0);
+            return CatalogETags.matches(ifNoneMatch, tag) ? notModified(tag, null) : validated(tag, null).body(all);
+        }
+        ProductPageRequest request = ProductPageRequest.builder()
+                .sort(parseSort(sort))
+                .cursor(cursor)
+                .limit(limit)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .inStock(Boolean.TRUE.equals(inStock))
+                .build();
+        ProductPage page = productService.getPage(request);
+        String tag = CatalogETags.list(page.getItems(), page.getNextCursor(), page.getLimit());
+        return CatalogETags.matches(ifNoneMatch, tag) ? notModified(tag, null) : validated(tag, null).body(page);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<ProductSearchPage> search(@RequestParam("q") String query,
+                                                    @RequestParam(defaultValue = "0") int page,
+                                                    @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(productService.search(query, page, size));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<ProductSuggestion>> suggest(@RequestParam("q") String prefix,
+                                                           @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(productService.suggest(prefix, limit));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDto> getById(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.getById(id));
+    public ResponseEntity<ProductDto> getById(@PathVariable Long id,
+                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            ProductVersion version = productService.getVersion(id);
+            String tag = CatalogETags.product(version.getId(), version.getVersion());
+            if (CatalogETags.matches(ifNoneMatch, tag)) {
+                return notModified(tag, version.getUpdatedAt());
+            }
+        }
+        // the tag is taken from the body itself, so it can never describe a different version
+        ProductDto dto = productService.getById(id);
+        String tag = CatalogETags.product(dto.getId(), dto.getVersion() != null ? dto.getVersion() : 0L);
+        return CatalogETags.matches(ifNoneMatch, tag) ? notModified(tag, dto.getUpdatedAt()) : validated(tag, dto.getUpdatedAt()).body(dto);
     }
 
     @PostMapping
@@ -47,4 +127,55 @@ public class ProductController {
         productService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    // Pre-rendered bytes go straight to the response; Jackson is not involved
+    private static ResponseEntity<?> serveSnapshot(CatalogSnapshot.Rendered snapshot, String ifNoneMatch, String acceptEncoding) {
+        boolean gzip = acceptsGzip(acceptEncoding);
+        String tag = gzip ? CatalogETags.gzip(snapshot.etag()) : snapshot.etag();
+        if (CatalogETags.matches(ifNoneMatch, snapshot.etag())) {
+            return notModified(tag, null);
+        }
+        ResponseEntity.BodyBuilder builder = validated(tag, null)
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.gzip());
+        }
+        return builder.body(snapshot.json());
+    }
+
+    // "gzip" listed without q=0
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] coding = part.trim().split(";");
+            if (coding[0].trim().equalsIgnoreCase("gzip")) {
+                return coding.length == 1 || !coding[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static ResponseEntity.BodyBuilder validated(String tag, Instant lastModified) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().eTag(tag).cacheControl(REVALIDATE);
+        return lastModified != null ? builder.lastModified(lastModified) : builder;
+    }
+
+    private static <T> ResponseEntity<T> notModified(String tag, Instant lastModified) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tag).cacheControl(REVALIDATE);
+        return (lastModified != null ? builder.lastModified(lastModified) : builder).build();
+    }
+
+    private static ProductSort parseSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return ProductSort.ID_ASC;
+        }
+        try {
+            return ProductSort.valueOf(sort.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unsupported sort: " + sort);
+        }
+    }
 }
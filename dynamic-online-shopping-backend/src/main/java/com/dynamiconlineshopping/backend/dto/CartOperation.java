@@ -0,0 +1,18 @@
+package com.dynamiconlineshopping.backend.dto;
+
+import com.dynamiconlineshopping.backend.enums.CartOperationType;
+import lombok.*;
+
+/**
+ * CartOperation - one line change in a bulk cart update.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CartOperation {
+    private CartOperationType op;
+    private Long productId;
+    private Integer quantity; // ADD defaults to 1; ignored for REMOVE
+}
@@ -0,0 +1,28 @@
+package com.dynamiconlineshopping.backend.dto;
+
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * CatalogFingerprint - product count, latest change and version sum; changes with any catalog write.
+ */
+@Getter
+@AllArgsConstructor
+public class CatalogFingerprint {
+    private Long count;
+    private Instant lastUpdatedAt;
+    private Long versionSum;
+
+    // compared at millisecond precision, the resolution stored in the catalog file
+    public boolean sameAs(CatalogFingerprint other) {
+        return other != null
+                && count.equals(other.count)
+                && versionSum.equals(other.versionSum)
+                && millis(lastUpdatedAt) == millis(other.lastUpdatedAt);
+    }
+
+    public static long millis(Instant instant) {
+        return instant == null ? Long.MIN_VALUE : instant.toEpochMilli();
+    }
+}
@@ -0,0 +1,23 @@
+package com.dynamiconlineshopping.backend.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * CategoryDto - category tree node; productCount includes all subcategories.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CategoryDto {
+    private Long id;
+    private String name;
+    private Long parentId;
+    private String path;
+    private int depth;
+    private long productCount;
+    private List<CategoryDto> children;
+}
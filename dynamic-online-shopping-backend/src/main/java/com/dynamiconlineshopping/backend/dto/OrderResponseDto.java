@@ -1,6 +1,5 @@
 package com.dynamiconlineshopping.backend.dto;
 
-import com.dynamiconlineshopping.backend.entity.User;
 import com.dynamiconlineshopping.backend.enums.OrderStatus;
 import lombok.*;
 
@@ -22,5 +21,5 @@ public class OrderResponseDto {
     private Instant createdAt;
     private List<CartItemDto> items;
     private String razorpayOrderId;
-    private User user;
+    private UserDto user;
 }
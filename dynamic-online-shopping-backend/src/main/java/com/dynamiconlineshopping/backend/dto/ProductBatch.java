@@ -0,0 +1,19 @@
+package com.dynamiconlineshopping.backend.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * ProductBatch - products found for a batch lookup, in request order, plus the ids and SKUs that matched nothing.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductBatch {
+    private List<ProductDto> items;
+    private List<Long> missingIds;
+    private List<String> missingSkus;
+}
@@ -2,6 +2,8 @@ package com.dynamiconlineshopping.backend.dto;
 
 import lombok.*;
 
+import java.time.Instant;
+
 /**
  * ProductDto - DTO for API responses/requests.
  */
@@ -18,4 +20,8 @@ public class ProductDto {
     private Integer stock;
     private String sku;
     private String imageUrl;
+    private Long categoryId;
+    // read-only, ignored on create/update
+    private Long version;
+    private Instant updatedAt;
 }
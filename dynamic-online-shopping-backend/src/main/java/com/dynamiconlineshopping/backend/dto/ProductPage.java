@@ -0,0 +1,19 @@
+package com.dynamiconlineshopping.backend.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * ProductPage - one slice of the product listing; nextCursor is null on the last page.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductPage {
+    private List<ProductDto> items;
+    private String nextCursor;
+    private int limit;
+}
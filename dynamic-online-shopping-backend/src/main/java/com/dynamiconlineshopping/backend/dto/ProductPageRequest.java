@@ -0,0 +1,22 @@
+package com.dynamiconlineshopping.backend.dto;
+
+import com.dynamiconlineshopping.backend.enums.ProductSort;
+import lombok.*;
+
+/**
+ * ProductPageRequest - sort, cursor, page size and filters for a product listing page.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductPageRequest {
+    @Builder.Default
+    private ProductSort sort = ProductSort.ID_ASC;
+    private String cursor;
+    private Integer limit;
+    private Double minPrice;
+    private Double maxPrice;
+    private boolean inStock;
+}
@@ -0,0 +1,20 @@
+package com.dynamiconlineshopping.backend.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * ProductSearchPage - one page of ranked search results; total counts every matching product.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductSearchPage {
+    private List<ProductDto> items;
+    private long total;
+    private int page;
+    private int size;
+}
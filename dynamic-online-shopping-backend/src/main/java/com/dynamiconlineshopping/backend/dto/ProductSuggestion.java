@@ -0,0 +1,17 @@
+package com.dynamiconlineshopping.backend.dto;
+
+import lombok.*;
+
+/**
+ * ProductSuggestion - lightweight typeahead entry.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductSuggestion {
+    private Long id;
+    private String title;
+    private String sku;
+}
@@ -0,0 +1,16 @@
+package com.dynamiconlineshopping.backend.dto;
+
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * ProductVersion - id, version and last change of a product, enough to answer a conditional GET.
+ */
+@Getter
+@AllArgsConstructor
+public class ProductVersion {
+    private Long id;
+    private long version;
+    private Instant updatedAt;
+}
@@ -7,7 +7,9 @@ import lombok.*;
  * CartItem - holds product snapshot and quantity for a user.
  */
 @Entity
-@Table(name = "cart_items")
+@Table(name = "cart_items", uniqueConstraints =
+        // one line per product: adding it again raises the quantity (see CartRepository.upsert)
+        @UniqueConstraint(name = "uk_cart_items_user_product", columnNames = {"user_id", "product_id"}))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -18,10 +20,10 @@ public class CartItem {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     private User user;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     private Product product;
 
     private Integer quantity;
@@ -0,0 +1,59 @@
+package com.dynamiconlineshopping.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Category entity - one node of the category tree.
+ *
+ * path is the materialized path of ids from the root, e.g. "/1/4/9/" for category 9 under 4
+ * under 1, so a subtree is one prefix match and the ancestors are read off the path without
+ * walking parents. productCount covers the whole subtree and is maintained on every product
+ * write instead of being counted on read.
+ */
+@Entity
+@Table(name = "categories", indexes = {
+        @Index(name = "idx_categories_path", columnList = "path")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Category {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Category parent;
+
+    // assigned once the id is known
+    private String path;
+
+    private int depth;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long productCount;
+
+    // "/1/4/9/" -> [1, 4, 9]
+    public static List<Long> idsOnPath(String path) {
+        List<Long> ids = new ArrayList<>();
+        if (path != null) {
+            for (String segment : path.split("/")) {
+                if (!segment.isEmpty()) {
+                    ids.add(Long.valueOf(segment));
+                }
+            }
+        }
+        return ids;
+    }
+}
@@ -2,12 +2,22 @@ package com.dynamiconlineshopping.backend.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.Instant;
 
 /**
  * Product entity.
  */
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        // backs the price-ordered keyset pages
+        @Index(name = "idx_products_price_id", columnList = "price, id"),
+        // batch lookups by SKU; also keeps SKUs unique (several products may have none)
+        @Index(name = "uk_products_sku", columnList = "sku", unique = true),
+        // backs the keyset listing of a category subtree
+        @Index(name = "idx_products_category_id", columnList = "category_id, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -30,4 +40,26 @@ public class Product {
     private String sku;
 
     private String imageUrl;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Category category;
+
+    // Optimistic lock, bumped by Hibernate on every change: identifies the representation for ETags,
+    // and an overlapping write of the same product fails instead of reusing the number for other content
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
+    private Instant updatedAt;
+
+    @PrePersist
+    void onCreate() {
+        updatedAt = Instant.now();
+    }
+
+    @PreUpdate
+    void onUpdate() {
+        updatedAt = Instant.now();
+    }
 }
@@ -0,0 +1,35 @@
+package com.dynamiconlineshopping.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * RevokedToken - persisted access-token revocation.
+ * Either a single token (tokenId = jti) or every token of a user issued before revokedAt (tokenId null).
+ */
+@Entity
+@Table(name = "revoked_tokens")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevokedToken {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(length = 64)
+    private String tokenId;
+
+    private Long userId;
+
+    @Column(nullable = false)
+    private Instant revokedAt;
+
+    // After this instant every token covered by the row has expired on its own
+    @Column(nullable = false)
+    private Instant expiresAt;
+}
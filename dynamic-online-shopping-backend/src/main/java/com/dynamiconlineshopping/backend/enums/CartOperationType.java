@@ -0,0 +1,10 @@
+package com.dynamiconlineshopping.backend.enums;
+
+/**
+ * Cart operation types for bulk cart changes.
+ */
+public enum CartOperationType {
+    ADD,        // Add quantity to the product's line, creating it if needed
+    SET,        // Set the line's quantity; 0 removes it
+    REMOVE      // Remove the product's line
+}
@@ -0,0 +1,12 @@
+package com.dynamiconlineshopping.backend.enums;
+
+/**
+ * ProductSort - orderings supported by the keyset-paginated product listing.
+ * Every ordering ends with id so the cursor position is always unique.
+ */
+public enum ProductSort {
+    ID_ASC,
+    NEWEST,
+    PRICE_ASC,
+    PRICE_DESC
+}
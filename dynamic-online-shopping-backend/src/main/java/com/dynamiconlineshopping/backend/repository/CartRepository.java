@@ -2,7 +2,13 @@ package com.dynamiconlineshopping.backend.repository;
 
 import com.dynamiconlineshopping.backend.entity.CartItem;
 import com.dynamiconlineshopping.backend.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -10,6 +16,46 @@ import java.util.List;
  * CartRepository.
  */
 public interface CartRepository extends JpaRepository<CartItem, Long> {
+    // cart responses embed the product, so it comes with the items in the same select
+    @EntityGraph(attributePaths = "product")
     List<CartItem> findByUser(User user);
+
+    boolean existsByIdAndUserId(Long id, Long userId);
+
     void deleteByUserAndProductId(User user, Long productId);
+
+    // Adds quantity to the user's line for the product, creating it if needed, in one atomic statement (PostgreSQL)
+    @Transactional
+    @Query(value = "insert into cart_items (user_id, product_id, quantity) values (:userId, :productId, :quantity) "
+            + "on conflict (user_id, product_id) do update set quantity = cart_items.quantity + excluded.quantity "
+            + "returning id, quantity", nativeQuery = true)
+    UpsertedLine upsert(@Param("userId") Long userId, @Param("productId") Long productId, @Param("quantity") int quantity);
+
+    // Sets the user's line for the product to quantity, creating it if needed; a line added meanwhile
+    // by another request is overwritten instead of breaking the unique (user_id, product_id) index
+    @Transactional
+    @Query(value = "insert into cart_items (user_id, product_id, quantity) values (:userId, :productId, :quantity) "
+            + "on conflict (user_id, product_id) do update set quantity = excluded.quantity "
+            + "returning id, quantity", nativeQuery = true)
+    UpsertedLine upsertQuantity(@Param("userId") Long userId, @Param("productId") Long productId, @Param("quantity") int quantity);
+
+    // Writes a buffered quantity without loading the line; 0 when it was deleted meanwhile.
+    // Commits on its own so a flush survives a rollback of the cart write that triggered it.
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query("update CartItem c set c.quantity = :quantity where c.id = :id")
+    int updateQuantity(@Param("id") Long id, @Param("quantity") int quantity);
+
+    // [productId, number of carts holding it]; used as a popularity signal for typeahead ranking
+    @Query("select c.product.id, count(c) from CartItem c group by c.product.id")
+    List<Object[]> countByProduct();
+
+    /**
+     * Id and resulting quantity of the line written by upsert.
+     */
+    interface UpsertedLine {
+        Long getId();
+
+        Integer getQuantity();
+    }
 }
@@ -0,0 +1,25 @@
+package com.dynamiconlineshopping.backend.repository;
+
+import com.dynamiconlineshopping.backend.entity.Category;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * CategoryRepository.
+ */
+public interface CategoryRepository extends JpaRepository<Category, Long> {
+
+    // the category itself and everything below it
+    @Query("select c.id from Category c where c.path like concat(:path, '%')")
+    List<Long> findSubtreeIds(@Param("path") String path);
+
+    // a relative update, so concurrent product writes cannot lose each other's increments
+    @Modifying
+    @Query("update Category c set c.productCount = c.productCount + :delta where c.id in :ids")
+    int adjustProductCount(@Param("ids") Collection<Long> ids, @Param("delta") long delta);
+}
@@ -3,16 +3,35 @@ package com.dynamiconlineshopping.backend.repository;
 import com.dynamiconlineshopping.backend.entity.Order;
 import com.dynamiconlineshopping.backend.entity.User;
 import com.dynamiconlineshopping.backend.enums.OrderStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
+    // Order responses carry the user, so the reads behind them join it instead of loading it per row
+    @EntityGraph(attributePaths = "user")
     List<Order> findByUser(User user);
+
+    @Override
+    @EntityGraph(attributePaths = "user")
+    Optional<Order> findById(Long id);
+
     Optional<Order> findByRazorpayOrderId(String razorpayOrderId);
 
     // METHODS FOR ADMIN
+    @Override
+    @EntityGraph(attributePaths = "user")
+    List<Order> findAll();
+
+    @EntityGraph(attributePaths = "user")
     List<Order> findByStatus(OrderStatus status);
+
     List<Order> findTop5ByOrderByCreatedAtDesc();
-}
\ No newline at end of file
+
+    @Query("select coalesce(sum(o.totalAmount), 0.0) from Order o where o.status = :status")
+    Double sumTotalAmountByStatus(@Param("status") OrderStatus status);
+}
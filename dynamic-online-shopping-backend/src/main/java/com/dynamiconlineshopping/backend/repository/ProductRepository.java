@@ -1,10 +1,78 @@
 package com.dynamiconlineshopping.backend.repository;
 
+import com.dynamiconlineshopping.backend.dto.CatalogFingerprint;
+import com.dynamiconlineshopping.backend.dto.ProductVersion;
 import com.dynamiconlineshopping.backend.entity.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * ProductRepository.
+ *
+ * The slice queries are keyset ("seek") pages: they continue strictly after the last row of the
+ * previous page instead of using OFFSET, so page N costs the same as page 1. Only the page size
+ * of the Pageable is used; the order is fixed by each query.
  */
 public interface ProductRepository extends JpaRepository<Product, Long> {
+
+    String FILTERS = " and (:minPrice is null or p.price >= :minPrice)"
+            + " and (:maxPrice is null or p.price <= :maxPrice)"
+            + " and (:inStock = false or p.stock > 0)";
+
+    @Query("select p from Product p where p.id > :afterId" + FILTERS + " order by p.id asc")
+    List<Product> findSliceByIdAsc(@Param("afterId") long afterId,
+                                   @Param("minPrice") Double minPrice,
+                                   @Param("maxPrice") Double maxPrice,
+                                   @Param("inStock") boolean inStock,
+                                   Pageable pageable);
+
+    @Query("select p from Product p where p.id < :beforeId" + FILTERS + " order by p.id desc")
+    List<Product> findSliceByIdDesc(@Param("beforeId") long beforeId,
+                                    @Param("minPrice") Double minPrice,
+                                    @Param("maxPrice") Double maxPrice,
+                                    @Param("inStock") boolean inStock,
+                                    Pageable pageable);
+
+    // Products without a price cannot be placed in price order and are left out of these two
+    @Query("select p from Product p where p.price is not null"
+            + " and (:afterPrice is null or p.price > :afterPrice or (p.price = :afterPrice and p.id > :afterId))"
+            + FILTERS + " order by p.price asc, p.id asc")
+    List<Product> findSliceByPriceAsc(@Param("afterPrice") Double afterPrice,
+                                      @Param("afterId") long afterId,
+                                      @Param("minPrice") Double minPrice,
+                                      @Param("maxPrice") Double maxPrice,
+                                      @Param("inStock") boolean inStock,
+                                      Pageable pageable);
+
+    @Query("select p from Product p where p.price is not null"
+            + " and (:beforePrice is null or p.price < :beforePrice or (p.price = :beforePrice and p.id < :beforeId))"
+            + FILTERS + " order by p.price desc, p.id desc")
+    List<Product> findSliceByPriceDesc(@Param("beforePrice") Double beforePrice,
+                                       @Param("beforeId") long beforeId,
+                                       @Param("minPrice") Double minPrice,
+                                       @Param("maxPrice") Double maxPrice,
+                                       @Param("inStock") boolean inStock,
+                                       Pageable pageable);
+
+    @Query("select p from Product p where p.category.id in :categoryIds and p.id > :afterId order by p.id asc")
+    List<Product> findSliceByCategoryIn(@Param("categoryIds") Collection<Long> categoryIds,
+                                        @Param("afterId") long afterId,
+                                        Pageable pageable);
+
+    List<Product> findBySkuIn(Collection<String> skus);
+
+    // Three columns instead of the whole row: all a conditional GET needs to answer 304
+    @Query("select new com.dynamiconlineshopping.backend.dto.ProductVersion(p.id, p.version, p.updatedAt)"
+            + " from Product p where p.id = :id")
+    Optional<ProductVersion> findVersionById(@Param("id") Long id);
+
+    @Query("select new com.dynamiconlineshopping.backend.dto.CatalogFingerprint(count(p), max(p.updatedAt), coalesce(sum(p.version), 0L))"
+            + " from Product p")
+    CatalogFingerprint fingerprint();
 }
@@ -0,0 +1,35 @@
+package com.dynamiconlineshopping.backend.repository;
+
+import com.dynamiconlineshopping.backend.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * RefreshTokenRepository - lookups by token hash, single-use rotation.
+ */
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    @Query("select r from RefreshToken r join fetch r.user where r.tokenHash = :tokenHash")
+    Optional<RefreshToken> findByTokenHash(@Param("tokenHash") String tokenHash);
+
+    // Returns 0 when another request already rotated this token
+    @Modifying
+    @Query("update RefreshToken r set r.revoked = true where r.id = :id and r.revoked = false")
+    int revokeIfActive(@Param("id") Long id);
+
+    @Modifying
+    @Query("update RefreshToken r set r.revoked = true where r.user.id = :userId and r.revoked = false")
+    int revokeAllForUser(@Param("userId") Long userId);
+
+    // Revoked rows are kept until revokedCutoff so a replayed token is still recognised as reuse
+    @Transactional
+    @Modifying
+    @Query("delete from RefreshToken r where r.expiresAt < :now or (r.revoked = true and r.createdAt < :revokedCutoff)")
+    int deleteExpiredAndRevoked(@Param("now") Instant now, @Param("revokedCutoff") Instant revokedCutoff);
+}
@@ -0,0 +1,25 @@
+package com.dynamiconlineshopping.backend.repository;
+
+import com.dynamiconlineshopping.backend.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * RevokedTokenRepository - source of truth the in-memory revocation list is rebuilt from.
+ */
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+    // Rows revoked since the given instant that still cover unexpired tokens
+    List<RevokedToken> findByRevokedAtAfterAndExpiresAtAfter(Instant since, Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RevokedToken r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
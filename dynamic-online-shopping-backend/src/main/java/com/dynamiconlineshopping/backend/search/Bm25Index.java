@@ -0,0 +1,345 @@
+package com.dynamiconlineshopping.backend.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bm25Index - in-memory inverted index over product text with BM25 ranking.
+ *
+ * Each product is one document; sku, title and description tokens are folded into a single
+ * field with per-field weights (a simple BM25F). Postings are primitive arrays sorted by an
+ * internal document number. Removing or re-indexing a product only marks its old document dead;
+ * once dead documents pass a threshold the postings are compacted and documents renumbered.
+ * Queries hold a read lock, writes a write lock. Score accumulators are sized to the index, so
+ * they are pooled (at most one per core is kept) rather than held by every request thread.
+ */
+public class Bm25Index {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final float SKU_WEIGHT = 3f;
+    private static final float TITLE_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final double COMPACT_DEAD_RATIO = 0.25;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> docByProduct = new HashMap<>();
+    private final ArrayBlockingQueue<Scratch> scratchPool =
+            new ArrayBlockingQueue<>(Math.max(1, Runtime.getRuntime().availableProcessors()));
+
+    private long[] productIds = new long[1024];
+    private float[] docLengths = new float[1024];
+    private boolean[] live = new boolean[1024];
+    private int docCount;
+    private int liveCount;
+    private double totalLength;
+
+    // Adds the product, replacing any previous version of it
+    public void index(long productId, String title, String description, String sku) {
+        Map<String, Float> terms = new HashMap<>();
+        float length = 0;
+        length += addTerms(terms, sku, SKU_WEIGHT, true);
+        length += addTerms(terms, title, TITLE_WEIGHT, false);
+        length += addTerms(terms, description, DESCRIPTION_WEIGHT, false);
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+            if (terms.isEmpty()) {
+                return;
+            }
+            int doc = docCount++;
+            ensureCapacity(docCount);
+            productIds[doc] = productId;
+            docLengths[doc] = length;
+            live[doc] = true;
+            liveCount++;
+            totalLength += length;
+            docByProduct.put(productId, doc);
+            // doc is the largest number so far, so appending keeps every postings list sorted
+            terms.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new Postings()).add(doc, tf));
+        } finally {
+            maybeCompact();
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long productId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+            maybeCompact();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Disjunctive BM25 query; returns the product ids for [offset, offset + limit) and the total match count
+    public Hits search(String query, int offset, int limit) {
+        List<String> queryTerms = new ArrayList<>();
+        tokenize(query, queryTerms, true);
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return new Hits(0, new long[0]);
+        }
+
+        Scratch pooled = scratchPool.poll();
+        Scratch s = pooled != null ? pooled : new Scratch();
+        lock.readLock().lock();
+        try {
+            s.ensureCapacity(docCount);
+            float avgLength = liveCount == 0 ? 1f : (float) (totalLength / liveCount);
+
+            for (String term : queryTerms.stream().distinct().toList()) {
+                Postings list = postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                // docCount and size both include dead documents until the next compaction, so idf stays consistent
+                double idf = Math.log(1 + (docCount - list.size + 0.5) / (list.size + 0.5));
+                for (int i = 0; i < list.size; i++) {
+                    int doc = list.docs[i];
+                    if (!live[doc]) {
+                        continue;
+                    }
+                    float tf = list.tfs[i];
+                    float norm = K1 * (1 - B + B * docLengths[doc] / avgLength);
+                    if (s.scores[doc] == 0f) {
+                        s.touched[s.touchedCount++] = doc;
+                    }
+                    s.scores[doc] += (float) (idf * tf * (K1 + 1) / (tf + norm));
+                }
+            }
+
+            // Bounded min-heap of doc numbers, weakest hit at the root
+            int wanted = (int) Math.min((long) offset + limit, s.touchedCount);
+            int[] heap = s.heap(wanted);
+            int heapSize = 0;
+            for (int i = 0; i < s.touchedCount && wanted > 0; i++) {
+                int doc = s.touched[i];
+                if (heapSize < wanted) {
+                    heap[heapSize] = doc;
+                    siftUp(heap, heapSize++, s.scores);
+                } else if (ranksAbove(s.scores, doc, heap[0])) {
+                    heap[0] = doc;
+                    siftDown(heap, heapSize, s.scores);
+                }
+            }
+
+            int[] ranked = new int[heapSize];
+            for (int i = ranked.length - 1; i >= 0; i--) {
+                ranked[i] = heap[0];
+                heap[0] = heap[--heapSize];
+                siftDown(heap, heapSize, s.scores);
+            }
+            long[] ids = new long[Math.max(0, ranked.length - offset)];
+            for (int i = offset; i < ranked.length; i++) {
+                ids[i - offset] = productIds[ranked[i]];
+            }
+
+            return new Hits(s.touchedCount, ids);
+        } finally {
+            s.reset();
+            lock.readLock().unlock();
+            scratchPool.offer(s);
+        }
+    }
+
+    private static boolean ranksAbove(float[] scores, int doc, int other) {
+        return scores[doc] > scores[other] || (scores[doc] == scores[other] && doc < other);
+    }
+
+    private static void siftUp(int[] heap, int index, float[] scores) {
+        int doc = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!ranksAbove(scores, heap[parent], doc)) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = doc;
+    }
+
+    private static void siftDown(int[] heap, int size, float[] scores) {
+        if (size == 0) {
+            return;
+        }
+        int doc = heap[0];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && ranksAbove(scores, heap[child], heap[child + 1])) {
+                child++;
+            }
+            if (!ranksAbove(scores, doc, heap[child])) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = doc;
+    }
+
+    private void removeLocked(long productId) {
+        Integer doc = docByProduct.remove(productId);
+        if (doc != null && live[doc]) {
+            live[doc] = false;
+            liveCount--;
+            totalLength -= docLengths[doc];
+        }
+    }
+
+    private void maybeCompact() {
+        if (docCount > 1024 && docCount - liveCount > COMPACT_DEAD_RATIO * docCount) {
+            compact();
+        }
+    }
+
+    // Drops dead documents from every postings list and renumbers the survivors densely
+    private void compact() {
+        int[] remap = new int[docCount];
+        int next = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (live[doc]) {
+                remap[doc] = next;
+                productIds[next] = productIds[doc];
+                docLengths[next] = docLengths[doc];
+                live[next] = true;
+                docByProduct.put(productIds[next], next);
+                next++;
+            } else {
+                remap[doc] = -1;
+            }
+        }
+        Arrays.fill(live, next, docCount, false);
+        docCount = next;
+
+        postings.values().removeIf(list -> {
+            int kept = 0;
+            for (int i = 0; i < list.size; i++) {
+                int mapped = remap[list.docs[i]];
+                if (mapped >= 0) {
+                    list.docs[kept] = mapped;
+                    list.tfs[kept] = list.tfs[i];
+                    kept++;
+                }
+            }
+            list.size = kept;
+            return kept == 0;
+        });
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed > productIds.length) {
+            int capacity = Math.max(needed, productIds.length * 2);
+            productIds = Arrays.copyOf(productIds, capacity);
+            docLengths = Arrays.copyOf(docLengths, capacity);
+            live = Arrays.copyOf(live, capacity);
+        }
+    }
+
+    private static float addTerms(Map<String, Float> terms, String text, float weight, boolean keepWhole) {
+        if (text == null || text.isBlank()) {
+            return 0;
+        }
+        List<String> tokens = new ArrayList<>();
+        tokenize(text, tokens, keepWhole);
+        for (String token : tokens) {
+            terms.merge(token, weight, Float::sum);
+        }
+        return tokens.size() * weight;
+    }
+
+    // Lower-cased runs of letters and digits; with keepSymbols a single word like "ABC-123" is also kept whole
+    static void tokenize(String text, List<String> out, boolean keepSymbols) {
+        if (text == null) {
+            return;
+        }
+        if (keepSymbols) {
+            String whole = text.trim().toLowerCase();
+            if (!whole.isEmpty() && !whole.chars().allMatch(Character::isLetterOrDigit) && whole.indexOf(' ') < 0) {
+                out.add(whole);
+            }
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean word = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                out.add(text.substring(start, i).toLowerCase());
+                start = -1;
+            }
+        }
+    }
+
+    /**
+     * One page of ranked product ids plus the number of matching products.
+     */
+    public record Hits(long total, long[] productIds) {
+    }
+
+    private static final class Postings {
+        int[] docs = new int[4];
+        float[] tfs = new float[4];
+        int size;
+
+        void add(int doc, float tf) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                tfs = Arrays.copyOf(tfs, size * 2);
+            }
+            docs[size] = doc;
+            tfs[size] = tf;
+            size++;
+        }
+    }
+
+    // Pooled score accumulator, reused across queries and cleared via the touched list
+    private static final class Scratch {
+        float[] scores = new float[0];
+        int[] touched = new int[0];
+        int[] heap = new int[0];
+        int touchedCount;
+
+        int[] heap(int size) {
+            if (heap.length < size) {
+                heap = new int[size];
+            }
+            return heap;
+        }
+
+        void ensureCapacity(int docs) {
+            if (scores.length < docs) {
+                scores = new float[docs];
+                touched = new int[docs];
+            }
+        }
+
+        void reset() {
+            for (int i = 0; i < touchedCount; i++) {
+                scores[touched[i]] = 0f;
+            }
+            touchedCount = 0;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.dynamiconlineshopping.backend.search;
+
+import com.dynamiconlineshopping.backend.dto.CatalogFingerprint;
+import com.dynamiconlineshopping.backend.entity.Product;
+import com.dynamiconlineshopping.backend.enums.ProductSort;
+import com.dynamiconlineshopping.backend.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * CatalogIndex - keeps the ColumnarCatalog in step with the catalog for listing queries.
+ *
+ * Filled once in the background after startup (keyset batches) and then updated per product
+ * write. Writes made while the load runs are remembered and applied on top of it. Until the
+ * load finishes, listings keep using the database queries.
+ *
+ * Updates carry the product version and an older one never replaces a newer row; deleted ids are
+ * remembered for a while so a late save cannot bring them back. Writes made on other nodes are
+ * picked up by a periodic check of the database fingerprint against the columns, which reloads
+ * the columns in the background when the count or version sum differ.
+ */
+@Slf4j
+@Component
+public class CatalogIndex {
+
+    private final ProductRepository productRepository;
+    private final int batchSize;
+    private final long tombstoneTtlMs;
+    private final AtomicBoolean loading = new AtomicBoolean();
+
+    // only read and written under this object's lock
+    private final Map<Long, Long> deletedAt = new HashMap<>();
+
+    private volatile ColumnarCatalog columns = ColumnarCatalog.empty();
+    private volatile Map<Long, Product> touchedDuringLoad;
+    private volatile boolean ready;
+
+    public CatalogIndex(ProductRepository productRepository,
+                        @Value("${app.search.loadBatchSize:1000}") int batchSize,
+                        @Value("${app.search.tombstoneTtlMs:600000}") long tombstoneTtlMs) {
+        this.productRepository = productRepository;
+        this.batchSize = batchSize;
+        this.tombstoneTtlMs = tombstoneTtlMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        if (!loading.compareAndSet(false, true)) {
+            return;
+        }
+        Thread loader = new Thread(() -> {
+            try {
+                load();
+            } finally {
+                loading.set(false);
+            }
+        }, "catalog-index-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    // Cheap aggregate query; only a mismatch (another node wrote, or an update was lost) costs a reload
+    @Scheduled(fixedDelayString = "${app.search.reconcileIntervalMs:60000}",
+            initialDelayString = "${app.search.reconcileIntervalMs:60000}")
+    public void reconcile() {
+        if (!ready || loading.get()) {
+            return;
+        }
+        pruneTombstones();
+        try {
+            CatalogFingerprint fingerprint = productRepository.fingerprint();
+            ColumnarCatalog current = columns;
+            if (fingerprint.getCount() == current.size() && fingerprint.getVersionSum() == current.versionSum()) {
+                return;
+            }
+            log.info("Catalog index out of step (columns: {} products, version sum {}; database: {}, {}), reloading",
+                    current.size(), current.versionSum(), fingerprint.getCount(), fingerprint.getVersionSum());
+            loadInBackground();
+        } catch (Exception e) {
+            log.warn("Catalog index reconcile check failed", e);
+        }
+    }
+
+    void load() {
+        synchronized (this) {
+            touchedDuringLoad = new HashMap<>();
+        }
+        long started = System.currentTimeMillis();
+        try {
+            List<Product> rows = new ArrayList<>();
+            List<Product> batch;
+            long afterId = 0L;
+            do {
+                batch = productRepository.findSliceByIdAsc(afterId, null, null, false, PageRequest.ofSize(batchSize));
+                rows.addAll(batch);
+                if (!batch.isEmpty()) {
+                    afterId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == batchSize);
+
+            long[] ids = new long[rows.size()];
+            long[] prices = new long[rows.size()];
+            int[] stock = new int[rows.size()];
+            long[] versions = new long[rows.size()];
+            for (int i = 0; i < rows.size(); i++) {
+                Product p = rows.get(i);
+                ids[i] = p.getId();
+                prices[i] = ColumnarCatalog.toMinor(p.getPrice());
+                stock[i] = stockOf(p);
+                versions[i] = p.getVersion();
+            }
+
+            synchronized (this) {
+                ColumnarCatalog loaded = ColumnarCatalog.of(ids, prices, stock, versions);
+                for (Map.Entry<Long, Product> touched : touchedDuringLoad.entrySet()) {
+                    loaded = apply(loaded, touched.getKey(), touched.getValue());
+                }
+                columns = loaded;
+                touchedDuringLoad = null;
+                ready = true;
+            }
+            log.info("Catalog index loaded: {} products in {} ms", rows.size(), System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            synchronized (this) {
+                touchedDuringLoad = null;
+            }
+            log.error(ready ? "Catalog index reload failed, keeping the current columns"
+                    : "Catalog index load failed, listings stay on the database", e);
+        }
+    }
+
+    public synchronized void onSaved(Product product) {
+        record(product.getId(), product);
+    }
+
+    public synchronized void onDeleted(Long productId) {
+        deletedAt.put(productId, System.currentTimeMillis());
+        record(productId, null);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public ColumnarCatalog.Slice query(ProductSort sort, Double afterPrice, long afterId,
+                                       Double minPrice, Double maxPrice, boolean inStock, int limit) {
+        return columns.query(sort,
+                afterPrice != null ? ColumnarCatalog.toMinor(afterPrice) : null, afterId,
+                minPrice != null ? ColumnarCatalog.toMinor(minPrice) : null,
+                maxPrice != null ? ColumnarCatalog.toMinor(maxPrice) : null,
+                inStock, limit);
+    }
+
+    private void record(Long productId, Product product) {
+        Map<Long, Product> touched = touchedDuringLoad;
+        if (touched != null) {
+            // null marks a delete; deletes always win, saves only replace older saves
+            Product previous = touched.get(productId);
+            if (product == null || deletedAt.containsKey(productId)) {
+                touched.put(productId, null);
+            } else if (!touched.containsKey(productId)
+                    || previous != null && previous.getVersion() <= product.getVersion()) {
+                touched.put(productId, product);
+            }
+        }
+        columns = apply(columns, productId, product);
+    }
+
+    private ColumnarCatalog apply(ColumnarCatalog catalog, Long productId, Product product) {
+        if (product == null || deletedAt.containsKey(productId)) {
+            return catalog.without(productId);
+        }
+        return catalog.with(productId, ColumnarCatalog.toMinor(product.getPrice()), stockOf(product), product.getVersion());
+    }
+
+    private synchronized void pruneTombstones() {
+        long cutoff = System.currentTimeMillis() - tombstoneTtlMs;
+        deletedAt.values().removeIf(at -> at < cutoff);
+    }
+
+    // null stock never matches "in stock", same as the database filter
+    private static int stockOf(Product product) {
+        return product.getStock() != null ? product.getStock() : 0;
+    }
+}
@@ -0,0 +1,289 @@
+package com.dynamiconlineshopping.backend.search;
+
+import com.dynamiconlineshopping.backend.enums.ProductSort;
+
+import java.util.Arrays;
+
+/**
+ * ColumnarCatalog - immutable column store of the fields catalog listings filter and sort on.
+ *
+ * Rows are kept in id order in parallel primitive arrays (id, price in minor units, stock, product
+ * version), plus one permutation of the priced rows in (price, id) order. A query binary-searches its start
+ * position in the matching order, then walks it applying the filters with plain array reads; the
+ * only allocation is the result of at most limit + 1 ids. Writes return a new instance built with
+ * array copies and a binary insert, so readers never need a lock. A write carrying an older version
+ * than the stored row is ignored, so updates applied out of order cannot roll a product back.
+ */
+public final class ColumnarCatalog {
+
+    public static final long NO_PRICE = Long.MIN_VALUE;
+
+    private static final ColumnarCatalog EMPTY =
+            new ColumnarCatalog(new long[0], new long[0], new int[0], new long[0], new int[0], 0L);
+
+    private final long[] ids;
+    private final long[] prices;
+    private final int[] stock;
+    private final long[] versions;
+    private final int[] byPrice;
+    private final long versionSum;
+
+    private ColumnarCatalog(long[] ids, long[] prices, int[] stock, long[] versions, int[] byPrice, long versionSum) {
+        this.ids = ids;
+        this.prices = prices;
+        this.stock = stock;
+        this.versions = versions;
+        this.byPrice = byPrice;
+        this.versionSum = versionSum;
+    }
+
+    public static ColumnarCatalog empty() {
+        return EMPTY;
+    }
+
+    // Columns must be in ascending id order
+    public static ColumnarCatalog of(long[] ids, long[] prices, int[] stock, long[] versions) {
+        int priced = 0;
+        for (long price : prices) {
+            if (price != NO_PRICE) {
+                priced++;
+            }
+        }
+        Integer[] order = new Integer[priced];
+        for (int row = 0, i = 0; row < ids.length; row++) {
+            if (prices[row] != NO_PRICE) {
+                order[i++] = row;
+            }
+        }
+        // rows are id-ordered, so the row number breaks price ties by id
+        Arrays.sort(order, (a, b) -> prices[a] != prices[b] ? Long.compare(prices[a], prices[b]) : Integer.compare(a, b));
+        int[] byPrice = new int[priced];
+        for (int i = 0; i < priced; i++) {
+            byPrice[i] = order[i];
+        }
+        long versionSum = 0L;
+        for (long version : versions) {
+            versionSum += version;
+        }
+        return new ColumnarCatalog(ids, prices, stock, versions, byPrice, versionSum);
+    }
+
+    // Price in minor units (cents); prices with more precision are rounded
+    public static long toMinor(Double price) {
+        return price == null ? NO_PRICE : Math.round(price * 100);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    // Same meaning as the database fingerprint's version sum, to detect drift from the catalog
+    public long versionSum() {
+        return versionSum;
+    }
+
+    // Insert or replace one product; a no-op when the stored row has a newer version
+    public ColumnarCatalog with(long id, long price, int stockLevel, long version) {
+        int row = Arrays.binarySearch(ids, id);
+        if (row >= 0) {
+            if (versions[row] > version) {
+                return this;
+            }
+            long[] newPrices = prices;
+            int[] newByPrice = byPrice;
+            if (prices[row] != price) {
+                newByPrice = removeFromPriceOrder(row, false);
+                newPrices = prices.clone();
+                newPrices[row] = price;
+            }
+            int[] newStock = stock.clone();
+            newStock[row] = stockLevel;
+            long[] newVersions = versions.clone();
+            newVersions[row] = version;
+            ColumnarCatalog updated = new ColumnarCatalog(ids, newPrices, newStock, newVersions, newByPrice,
+                    versionSum - versions[row] + version);
+            return prices[row] != price && price != NO_PRICE ? updated.insertIntoPriceOrder(row) : updated;
+        }
+
+        int at = -row - 1;
+        ColumnarCatalog inserted = new ColumnarCatalog(insert(ids, at, id), insert(prices, at, price),
+                insert(stock, at, stockLevel), insert(versions, at, version), shiftRows(byPrice, at, 1), versionSum + version);
+        return price != NO_PRICE ? inserted.insertIntoPriceOrder(at) : inserted;
+    }
+
+    public ColumnarCatalog without(long id) {
+        int row = Arrays.binarySearch(ids, id);
+        if (row < 0) {
+            return this;
+        }
+        return new ColumnarCatalog(remove(ids, row), remove(prices, row), remove(stock, row), remove(versions, row),
+                removeFromPriceOrder(row, true), versionSum - versions[row]);
+    }
+
+    /**
+     * Ids of the next page in the given order, continuing strictly after (afterPrice, afterId).
+     * For the descending sorts "after" means below. A null afterPrice starts at the beginning.
+     */
+    public Slice query(ProductSort sort, Long afterPrice, long afterId,
+                       Long minPrice, Long maxPrice, boolean inStock, int limit) {
+        long min = minPrice != null ? minPrice : Long.MIN_VALUE;
+        long max = maxPrice != null ? maxPrice : Long.MAX_VALUE;
+        boolean priceFiltered = minPrice != null || maxPrice != null;
+        long[] out = new long[limit + 1];
+        int found = 0;
+
+        switch (sort) {
+            case ID_ASC -> {
+                for (int row = upperBound(afterId); row < ids.length && found <= limit; row++) {
+                    if (matches(row, priceFiltered, min, max, inStock)) {
+                        out[found++] = ids[row];
+                    }
+                }
+            }
+            case NEWEST -> {
+                for (int row = upperBound(afterId - 1) - 1; row >= 0 && found <= limit; row--) {
+                    if (matches(row, priceFiltered, min, max, inStock)) {
+                        out[found++] = ids[row];
+                    }
+                }
+            }
+            case PRICE_ASC -> {
+                int start = afterPrice != null ? priceUpperBound(afterPrice, afterId) : 0;
+                start = Math.max(start, priceUpperBound(min, Long.MIN_VALUE));
+                for (int i = start; i < byPrice.length && found <= limit; i++) {
+                    int row = byPrice[i];
+                    if (prices[row] > max) {
+                        break;
+                    }
+                    if (!inStock || stock[row] > 0) {
+                        out[found++] = ids[row];
+                    }
+                }
+            }
+            case PRICE_DESC -> {
+                int end = afterPrice != null ? priceUpperBound(afterPrice, afterId - 1) : byPrice.length;
+                end = Math.min(end, priceUpperBound(max, Long.MAX_VALUE));
+                for (int i = end - 1; i >= 0 && found <= limit; i--) {
+                    int row = byPrice[i];
+                    if (prices[row] < min) {
+                        break;
+                    }
+                    if (!inStock || stock[row] > 0) {
+                        out[found++] = ids[row];
+                    }
+                }
+            }
+        }
+
+        boolean hasMore = found > limit;
+        return new Slice(Arrays.copyOf(out, Math.min(found, limit)), hasMore);
+    }
+
+    private boolean matches(int row, boolean priceFiltered, long min, long max, boolean inStock) {
+        if (priceFiltered && (prices[row] == NO_PRICE || prices[row] < min || prices[row] > max)) {
+            return false;
+        }
+        return !inStock || stock[row] > 0;
+    }
+
+    // First row whose id is greater than id
+    private int upperBound(long id) {
+        int low = 0;
+        int high = ids.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ids[mid] <= id) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // First position in price order whose (price, id) is greater than (price, id)
+    private int priceUpperBound(long price, long id) {
+        int low = 0;
+        int high = byPrice.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int row = byPrice[mid];
+            if (prices[row] < price || (prices[row] == price && ids[row] <= id)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private ColumnarCatalog insertIntoPriceOrder(int row) {
+        int at = priceUpperBound(prices[row], ids[row]);
+        int[] order = new int[byPrice.length + 1];
+        System.arraycopy(byPrice, 0, order, 0, at);
+        order[at] = row;
+        System.arraycopy(byPrice, at, order, at + 1, byPrice.length - at);
+        return new ColumnarCatalog(ids, prices, stock, versions, order, versionSum);
+    }
+
+    // Drops row from the price order; when the row itself is removed, later rows move up by one
+    private int[] removeFromPriceOrder(int row, boolean rowRemoved) {
+        if (prices[row] == NO_PRICE) {
+            return rowRemoved ? shiftRows(byPrice, row, -1) : byPrice;
+        }
+        int[] order = new int[byPrice.length - 1];
+        int j = 0;
+        for (int r : byPrice) {
+            if (r != row) {
+                order[j++] = rowRemoved && r > row ? r - 1 : r;
+            }
+        }
+        return order;
+    }
+
+    private static int[] shiftRows(int[] order, int from, int delta) {
+        int[] shifted = order.clone();
+        for (int i = 0; i < shifted.length; i++) {
+            if (shifted[i] >= from) {
+                shifted[i] += delta;
+            }
+        }
+        return shifted;
+    }
+
+    private static long[] insert(long[] array, int at, long value) {
+        long[] out = new long[array.length + 1];
+        System.arraycopy(array, 0, out, 0, at);
+        out[at] = value;
+        System.arraycopy(array, at, out, at + 1, array.length - at);
+        return out;
+    }
+
+    private static int[] insert(int[] array, int at, int value) {
+        int[] out = new int[array.length + 1];
+        System.arraycopy(array, 0, out, 0, at);
+        out[at] = value;
+        System.arraycopy(array, at, out, at + 1, array.length - at);
+        return out;
+    }
+
+    private static long[] remove(long[] array, int at) {
+        long[] out = new long[array.length - 1];
+        System.arraycopy(array, 0, out, 0, at);
+        System.arraycopy(array, at + 1, out, at, array.length - at - 1);
+        return out;
+    }
+
+    private static int[] remove(int[] array, int at) {
+        int[] out = new int[array.length - 1];
+        System.arraycopy(array, 0, out, 0, at);
+        System.arraycopy(array, at + 1, out, at, array.length - at - 1);
+        return out;
+    }
+
+    /**
+     * One page of product ids, and whether more rows match after it.
+     */
+    public record Slice(long[] ids, boolean hasMore) {
+    }
+}
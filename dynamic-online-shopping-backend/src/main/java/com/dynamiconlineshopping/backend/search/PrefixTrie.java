@@ -0,0 +1,121 @@
+package com.dynamiconlineshopping.backend.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PrefixTrie - immutable prefix tree that answers "best N entries starting with this prefix".
+ *
+ * Entries are added in rank order (best first), so each node simply keeps the first K entry
+ * ranks that pass through it; a lookup is a walk down the prefix plus a copy of that list, with
+ * no scoring at query time. Keys are cut at maxDepth characters to bound the node count; longer
+ * prefixes are answered from the deepest node and filtered by the caller.
+ */
+public final class PrefixTrie {
+
+    private static final char[] NO_LABELS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final Node root;
+    private final int maxDepth;
+
+    private PrefixTrie(Node root, int maxDepth) {
+        this.root = root;
+        this.maxDepth = maxDepth;
+    }
+
+    public static PrefixTrie empty() {
+        return new Builder(1, 1).build();
+    }
+
+    public int maxDepth() {
+        return maxDepth;
+    }
+
+    // Ranks (best first) of entries having a key that starts with prefix (or its first maxDepth chars)
+    public int[] lookup(String prefix) {
+        Node node = root;
+        int depth = Math.min(prefix.length(), maxDepth);
+        for (int i = 0; i < depth && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        return node == null ? new int[0] : node.top.clone();
+    }
+
+    private static final class Node {
+        char[] labels = NO_LABELS;
+        Node[] children = NO_CHILDREN;
+        int[] top;
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(labels, c);
+            return i >= 0 ? children[i] : null;
+        }
+    }
+
+    /**
+     * Collects keys for entries given in rank order, then freezes them into a PrefixTrie.
+     */
+    public static final class Builder {
+
+        private final int topK;
+        private final int maxDepth;
+        private final BuildNode root = new BuildNode();
+
+        public Builder(int topK, int maxDepth) {
+            this.topK = topK;
+            this.maxDepth = maxDepth;
+        }
+
+        // Must be called with non-decreasing ranks; the same rank may be added under several keys
+        public void add(String key, int rank) {
+            BuildNode node = root;
+            node.offer(rank, topK);
+            int depth = Math.min(key.length(), maxDepth);
+            for (int i = 0; i < depth; i++) {
+                node = node.children.computeIfAbsent(key.charAt(i), c -> new BuildNode());
+                node.offer(rank, topK);
+            }
+        }
+
+        public PrefixTrie build() {
+            return new PrefixTrie(freeze(root), maxDepth);
+        }
+
+        private static Node freeze(BuildNode source) {
+            Node node = new Node();
+            node.top = Arrays.copyOf(source.top, source.size);
+            if (!source.children.isEmpty()) {
+                List<Character> labels = new ArrayList<>(source.children.keySet());
+                labels.sort(null);
+                node.labels = new char[labels.size()];
+                node.children = new Node[labels.size()];
+                for (int i = 0; i < labels.size(); i++) {
+                    node.labels[i] = labels.get(i);
+                    node.children[i] = freeze(source.children.get(labels.get(i)));
+                }
+            }
+            return node;
+        }
+
+        private static final class BuildNode {
+            final Map<Character, BuildNode> children = new HashMap<>(4);
+            int[] top = new int[2];
+            int size;
+
+            void offer(int rank, int topK) {
+                // ranks arrive in order, so a repeat can only be the last one stored
+                if (size == topK || (size > 0 && top[size - 1] == rank)) {
+                    return;
+                }
+                if (size == top.length) {
+                    top = Arrays.copyOf(top, Math.min(topK, size * 2));
+                }
+                top[size++] = rank;
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.dynamiconlineshopping.backend.search;
+
+import com.dynamiconlineshopping.backend.entity.Product;
+import com.dynamiconlineshopping.backend.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ProductSearchIndex - keeps the BM25 product index in step with the catalog.
+ *
+ * The index is filled once from the database in the background after startup (keyset batches,
+ * never the whole table at once) and afterwards only updated incrementally by ProductServiceImpl.
+ *
+ * Every product is indexed with its version and an older one never replaces a newer one, so saves
+ * reported out of order (after their transactions commit) and rows the initial load read before a
+ * later write both lose. Deleted ids keep a tombstone so a late save cannot bring them back.
+ */
+@Slf4j
+@Component
+public class ProductSearchIndex {
+
+    private static final long DELETED = Long.MAX_VALUE;
+
+    private final ProductRepository productRepository;
+    private final int batchSize;
+    private final Bm25Index index = new Bm25Index();
+
+    // indexed version per product (DELETED for removed ones); only read and written under this object's lock
+    private final Map<Long, Long> versions = new HashMap<>();
+
+    private volatile boolean ready;
+
+    public ProductSearchIndex(ProductRepository productRepository,
+                              @Value("${app.search.loadBatchSize:1000}") int batchSize) {
+        this.productRepository = productRepository;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        Thread loader = new Thread(this::load, "product-search-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    void load() {
+        long started = System.currentTimeMillis();
+        long afterId = 0L;
+        try {
+            List<Product> batch;
+            do {
+                batch = productRepository.findSliceByIdAsc(afterId, null, null, false, PageRequest.ofSize(batchSize));
+                synchronized (this) {
+                    for (Product product : batch) {
+                        addIfNotOlder(product);
+                        afterId = product.getId();
+                    }
+                }
+            } while (batch.size() == batchSize);
+            ready = true;
+            log.info("Product search index loaded: {} products in {} ms", index.size(), System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            log.error("Product search index load failed after id {}", afterId, e);
+        }
+    }
+
+    public synchronized void onSaved(Product product) {
+        addIfNotOlder(product);
+    }
+
+    public synchronized void onDeleted(Long productId) {
+        versions.put(productId, DELETED);
+        index.remove(productId);
+    }
+
+    public Bm25Index.Hits search(String query, int offset, int limit) {
+        return index.search(query, offset, limit);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private void addIfNotOlder(Product product) {
+        Long indexed = versions.get(product.getId());
+        if (indexed != null && indexed > product.getVersion()) {
+            return;
+        }
+        versions.put(product.getId(), product.getVersion());
+        index.index(product.getId(), product.getTitle(), product.getDescription(), product.getSku());
+    }
+}
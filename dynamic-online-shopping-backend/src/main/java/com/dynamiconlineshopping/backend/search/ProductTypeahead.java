@@ -0,0 +1,206 @@
+package com.dynamiconlineshopping.backend.search;
+
+import com.dynamiconlineshopping.backend.dto.ProductSuggestion;
+import com.dynamiconlineshopping.backend.entity.Product;
+import com.dynamiconlineshopping.backend.repository.CartRepository;
+import com.dynamiconlineshopping.backend.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * ProductTypeahead - autocomplete over product titles and SKUs.
+ *
+ * Queries read an immutable snapshot (a PrefixTrie plus the suggestions it points to) and never
+ * touch the database. Catalog changes only mark the snapshot stale; a single background thread
+ * rebuilds it after a short debounce and swaps it in, so bursts of admin edits cost one rebuild.
+ * Ranking: in-stock first, then how many carts hold the product, then stock, then shorter titles.
+ */
+@Slf4j
+@Component
+public class ProductTypeahead {
+
+    private static final int MAX_TITLE_WORDS = 6;
+
+    private final ProductRepository productRepository;
+    private final CartRepository cartRepository;
+    private final int topK;
+    private final int maxDepth;
+    private final long debounceMs;
+    private final int batchSize;
+    private final ScheduledExecutorService rebuilder;
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+
+    private volatile Snapshot snapshot = new Snapshot(PrefixTrie.empty(), new ProductSuggestion[0]);
+
+    public ProductTypeahead(ProductRepository productRepository,
+                            CartRepository cartRepository,
+                            @Value("${app.typeahead.topK:10}") int topK,
+                            @Value("${app.typeahead.maxDepth:24}") int maxDepth,
+                            @Value("${app.typeahead.debounceMs:2000}") long debounceMs,
+                            @Value("${app.search.loadBatchSize:1000}") int batchSize) {
+        this.productRepository = productRepository;
+        this.cartRepository = cartRepository;
+        this.topK = topK;
+        this.maxDepth = maxDepth;
+        this.debounceMs = debounceMs;
+        this.batchSize = batchSize;
+        this.rebuilder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "typeahead-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            rebuilder.execute(this::rebuild);
+        }
+    }
+
+    // Called after every catalog write; cheap and non-blocking
+    public void markStale() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            rebuilder.schedule(this::rebuild, debounceMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public List<ProductSuggestion> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Snapshot current = snapshot;
+        int[] ranks = current.trie().lookup(normalized);
+        boolean beyondTrie = normalized.length() > current.trie().maxDepth();
+
+        List<ProductSuggestion> out = new ArrayList<>(Math.min(limit, ranks.length));
+        for (int rank : ranks) {
+            ProductSuggestion suggestion = current.suggestions()[rank];
+            if (beyondTrie && !matches(suggestion, normalized)) {
+                continue;
+            }
+            out.add(suggestion);
+            if (out.size() == limit) {
+                break;
+            }
+        }
+        return out;
+    }
+
+    void rebuild() {
+        rebuildPending.set(false);
+        long started = System.currentTimeMillis();
+        try {
+            Map<Long, Long> cartCounts = new HashMap<>();
+            for (Object[] row : cartRepository.countByProduct()) {
+                cartCounts.put((Long) row[0], (Long) row[1]);
+            }
+
+            List<Product> products = new ArrayList<>();
+            List<Product> batch;
+            long afterId = 0L;
+            do {
+                batch = productRepository.findSliceByIdAsc(afterId, null, null, false, PageRequest.ofSize(batchSize));
+                products.addAll(batch);
+                if (!batch.isEmpty()) {
+                    afterId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == batchSize);
+
+            products.sort(Comparator
+                    .comparing((Product p) -> p.getStock() == null || p.getStock() <= 0)
+                    .thenComparing((Product p) -> cartCounts.getOrDefault(p.getId(), 0L), Comparator.reverseOrder())
+                    .thenComparing((Product p) -> p.getStock() == null ? 0 : p.getStock(), Comparator.reverseOrder())
+                    .thenComparing((Product p) -> p.getTitle() == null ? 0 : p.getTitle().length())
+                    .thenComparing(Product::getId));
+
+            PrefixTrie.Builder builder = new PrefixTrie.Builder(topK, maxDepth);
+            ProductSuggestion[] suggestions = new ProductSuggestion[products.size()];
+            for (int rank = 0; rank < products.size(); rank++) {
+                Product p = products.get(rank);
+                suggestions[rank] = new ProductSuggestion(p.getId(), p.getTitle(), p.getSku());
+                for (String key : keys(p.getTitle(), p.getSku())) {
+                    builder.add(key, rank);
+                }
+            }
+
+            snapshot = new Snapshot(builder.build(), suggestions);
+            log.info("Typeahead rebuilt: {} products in {} ms", suggestions.length, System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            log.error("Typeahead rebuild failed, keeping previous snapshot", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    // Full title, each later word of the title ("wireless mouse" is found by "mou"), and the SKU
+    static List<String> keys(String title, String sku) {
+        List<String> keys = new ArrayList<>();
+        String normalizedTitle = normalize(title).strip();
+        if (!normalizedTitle.isEmpty()) {
+            keys.add(normalizedTitle);
+            int words = 1;
+            for (int i = normalizedTitle.indexOf(' '); i >= 0 && words < MAX_TITLE_WORDS; i = normalizedTitle.indexOf(' ', i + 1)) {
+                keys.add(normalizedTitle.substring(i + 1));
+                words++;
+            }
+        }
+        String normalizedSku = normalize(sku).strip();
+        if (!normalizedSku.isEmpty()) {
+            keys.add(normalizedSku);
+        }
+        return keys;
+    }
+
+    private static boolean matches(ProductSuggestion suggestion, String prefix) {
+        return keys(suggestion.getTitle(), suggestion.getSku()).stream().anyMatch(key -> key.startsWith(prefix));
+    }
+
+    // Lower case, punctuation folded to single spaces: "USB-C  Cable" -> "usb c cable"
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && out.length() > 0) {
+                    out.append(' ');
+                }
+                out.append(Character.toLowerCase(c));
+                pendingSpace = false;
+            } else {
+                pendingSpace = true;
+            }
+        }
+        // keep a trailing space so "usb " only matches the whole word
+        if (pendingSpace && out.length() > 0 && Character.isWhitespace(text.charAt(text.length() - 1))) {
+            out.append(' ');
+        }
+        return out.toString();
+    }
+
+    private record Snapshot(PrefixTrie trie, ProductSuggestion[] suggestions) {
+    }
+}
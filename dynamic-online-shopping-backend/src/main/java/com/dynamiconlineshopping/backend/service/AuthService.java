@@ -10,4 +10,6 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 public interface AuthService extends UserDetailsService {
     Object register(RegisterRequest request);
     Object login(AuthRequest request);
+    Object refresh(String refreshToken);
+    Object logout(String accessToken, String refreshToken);
 }
@@ -1,6 +1,7 @@
 package com.dynamiconlineshopping.backend.service;
 
 import com.dynamiconlineshopping.backend.dto.CartItemDto;
+import com.dynamiconlineshopping.backend.dto.CartOperation;
 
 import java.util.List;
 
@@ -12,4 +13,5 @@ public interface CartService {
     List<CartItemDto> addItem(CartItemDto dto);
     List<CartItemDto> updateItem(Long cartItemId, CartItemDto dto);
     List<CartItemDto> removeItem(Long cartItemId);
+    List<CartItemDto> applyOperations(List<CartOperation> operations);
 }
@@ -0,0 +1,13 @@
+package com.dynamiconlineshopping.backend.service;
+
+import com.dynamiconlineshopping.backend.dto.CategoryDto;
+
+import java.util.List;
+
+/**
+ * CategoryService - category tree operations.
+ */
+public interface CategoryService {
+    List<CategoryDto> getTree();
+    CategoryDto create(CategoryDto dto);
+}
@@ -1,6 +1,13 @@
 package com.dynamiconlineshopping.backend.service;
 
+import com.dynamiconlineshopping.backend.cache.CatalogSnapshot;
+import com.dynamiconlineshopping.backend.dto.ProductBatch;
 import com.dynamiconlineshopping.backend.dto.ProductDto;
+import com.dynamiconlineshopping.backend.dto.ProductPage;
+import com.dynamiconlineshopping.backend.dto.ProductPageRequest;
+import com.dynamiconlineshopping.backend.dto.ProductSearchPage;
+import com.dynamiconlineshopping.backend.dto.ProductSuggestion;
+import com.dynamiconlineshopping.backend.dto.ProductVersion;
 
 import java.util.List;
 
@@ -9,7 +16,14 @@ import java.util.List;
  */
 public interface ProductService {
     List<ProductDto> getAll();
+    CatalogSnapshot.Rendered getCatalogSnapshot();
+    ProductPage getPage(ProductPageRequest request);
+    ProductPage getByCategory(Long categoryId, String cursor, Integer limit);
+    ProductSearchPage search(String query, int page, int size);
+    List<ProductSuggestion> suggest(String prefix, int limit);
     ProductDto getById(Long id);
+    ProductVersion getVersion(Long id);
+    ProductBatch getBatch(List<Long> ids, List<String> skus);
     ProductDto create(ProductDto dto);
     ProductDto update(Long id, ProductDto dto);
     void delete(Long id);
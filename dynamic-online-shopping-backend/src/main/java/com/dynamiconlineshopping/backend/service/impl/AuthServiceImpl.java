@@ -1,20 +1,39 @@
 package com.dynamiconlineshopping.backend.service.impl;
 
+import com.dynamiconlineshopping.backend.cache.UserIdentity;
+import com.dynamiconlineshopping.backend.cache.UserIdentityCache;
 import com.dynamiconlineshopping.backend.config.JwtUtil;
+import com.dynamiconlineshopping.backend.config.TokenRevocationList;
 import com.dynamiconlineshopping.backend.dto.AuthRequest;
 import com.dynamiconlineshopping.backend.dto.RegisterRequest;
+import com.dynamiconlineshopping.backend.entity.RefreshToken;
 import com.dynamiconlineshopping.backend.entity.User;
 import com.dynamiconlineshopping.backend.enums.Role;
+import com.dynamiconlineshopping.backend.exception.InvalidTokenException;
+import com.dynamiconlineshopping.backend.repository.RefreshTokenRepository;
 import com.dynamiconlineshopping.backend.repository.UserRepository;
 import com.dynamiconlineshopping.backend.service.AuthService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
 import java.util.Map;
 
 @Service
@@ -25,6 +44,17 @@ public class AuthServiceImpl implements AuthService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtUtil jwtUtil;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserIdentityCache userIdentityCache;
+    private final TokenRevocationList tokenRevocationList;
+
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
+    @Value("${app.jwt.refreshExpirationMs:2592000000}")
+    private long refreshExpirationMs;
+
+    @Value("${app.jwt.refreshRevokedRetentionMs:86400000}")
+    private long refreshRevokedRetentionMs;
 
     @Override
     public Object register(RegisterRequest request) {
@@ -40,6 +70,7 @@ public class AuthServiceImpl implements AuthService {
                 .build();
 
         userRepository.save(user);
+        userIdentityCache.invalidate(user.getEmail());
 
         return Map.of(
                 "message", "User registered successfully",
@@ -54,23 +85,111 @@ public class AuthServiceImpl implements AuthService {
                 new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
         );
 
-        User user = userRepository.findByEmail(request.getEmail())
+        // authenticate() just loaded this user through the identity cache, so this is a cache hit
+        UserIdentity user = userIdentityCache.findByEmail(request.getEmail())
                 .orElseThrow(() -> new RuntimeException("Invalid credentials"));
 
-        // Include role in JWT token generation
-        String token = jwtUtil.generateToken(user.getEmail(), user.getRole().name());
+        // Include role and user id in JWT token generation
+        String token = jwtUtil.generateToken(user.getEmail(), user.getRole().name(), user.getId());
 
         return Map.of(
                 "token", token,
+                "refreshToken", issueRefreshToken(userRepository.getReferenceById(user.getId())),
                 "email", user.getEmail(),
                 "role", user.getRole(),
                 "name", user.getFullName()
         );
     }
 
+    // Renewal is a hash lookup plus a single-use rotation; no password check
+    @Override
+    @Transactional(noRollbackFor = InvalidTokenException.class)
+    public Object refresh(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            throw new InvalidTokenException("Refresh token missing");
+        }
+
+        RefreshToken stored = refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .orElseThrow(() -> new InvalidTokenException("Invalid refresh token"));
+        User user = stored.getUser();
+
+        if (stored.isRevoked() || refreshTokenRepository.revokeIfActive(stored.getId()) == 0) {
+            // A used token came back: assume it leaked and end every session of this user
+            refreshTokenRepository.revokeAllForUser(user.getId());
+            tokenRevocationList.revokeUser(user.getId());
+            throw new InvalidTokenException("Refresh token already used");
+        }
+        if (stored.getExpiresAt().isBefore(Instant.now())) {
+            throw new InvalidTokenException("Refresh token expired");
+        }
+
+        String token = jwtUtil.generateToken(user.getEmail(), user.getRole().name(), user.getId());
+
+        return Map.of(
+                "token", token,
+                "refreshToken", issueRefreshToken(user),
+                "email", user.getEmail(),
+                "role", user.getRole()
+        );
+    }
+
+    // Revokes the presented access token until it expires, and the refresh token when one is given
+    @Override
+    @Transactional
+    public Object logout(String accessToken, String refreshToken) {
+        try {
+            Claims claims = jwtUtil.extractAllClaims(accessToken);
+            tokenRevocationList.revokeToken(claims.getId(), claims.getExpiration().toInstant());
+        } catch (ExpiredJwtException e) {
+            // already unusable; the refresh token below still has to be revoked
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidTokenException("Invalid access token");
+        }
+
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                    .ifPresent(stored -> refreshTokenRepository.revokeIfActive(stored.getId()));
+        }
+
+        return Map.of("message", "Logged out successfully");
+    }
+
+    // Every login and refresh adds a row; drop the ones that can no longer be used or matter for reuse detection
+    @Scheduled(fixedDelayString = "${app.jwt.refreshCleanupIntervalMs:3600000}",
+            initialDelayString = "${app.jwt.refreshCleanupIntervalMs:3600000}")
+    public void purgeRefreshTokens() {
+        Instant now = Instant.now();
+        refreshTokenRepository.deleteExpiredAndRevoked(now, now.minusMillis(refreshRevokedRetentionMs));
+    }
+
+    private String issueRefreshToken(User user) {
+        byte[] bytes = new byte[32];
+        SECURE_RANDOM.nextBytes(bytes);
+        String raw = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        Instant now = Instant.now();
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(hash(raw))
+                .user(user)
+                .createdAt(now)
+                .expiresAt(now.plusMillis(refreshExpirationMs))
+                .revoked(false)
+                .build());
+        return raw;
+    }
+
+    private static String hash(String raw) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(raw.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        return userRepository.findByEmail(email)
+        return userIdentityCache.findByEmail(email)
                 .map(user -> new org.springframework.security.core.userdetails.User(
                         user.getEmail(),
                         user.getPassword(),
@@ -1,20 +1,34 @@
 package com.dynamiconlineshopping.backend.service.impl;
 
+import com.dynamiconlineshopping.backend.cache.CartQuantityBuffer;
+import com.dynamiconlineshopping.backend.cache.UserIdentityCache;
+import com.dynamiconlineshopping.backend.config.AuthenticatedUser;
 import com.dynamiconlineshopping.backend.dto.CartItemDto;
+import com.dynamiconlineshopping.backend.dto.CartOperation;
 import com.dynamiconlineshopping.backend.dto.ProductDto;
 import com.dynamiconlineshopping.backend.entity.CartItem;
 import com.dynamiconlineshopping.backend.entity.Product;
 import com.dynamiconlineshopping.backend.entity.User;
+import com.dynamiconlineshopping.backend.exception.BadRequestException;
 import com.dynamiconlineshopping.backend.exception.ResourceNotFoundException;
 import com.dynamiconlineshopping.backend.repository.CartRepository;
 import com.dynamiconlineshopping.backend.repository.ProductRepository;
 import com.dynamiconlineshopping.backend.repository.UserRepository;
 import com.dynamiconlineshopping.backend.service.CartService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,15 +38,30 @@ public class CartServiceImpl implements CartService {
     private final CartRepository cartRepository;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
+    private final UserIdentityCache userIdentityCache;
+    private final CartQuantityBuffer cartQuantityBuffer;
+
+    @Value("${app.cart.maxOperations:100}")
+    private int maxOperations = 100;
 
     private User getCurrentUser() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByEmail(email)
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        // Token carries the user id: a lazy reference is enough for FK use, no SELECT needed
+        if (auth.getPrincipal() instanceof AuthenticatedUser principal && principal.getId() != null) {
+            return userRepository.getReferenceById(principal.getId());
+        }
+        return userIdentityCache.findByEmail(auth.getName())
+                .map(identity -> userRepository.getReferenceById(identity.getId()))
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
     }
 
+    // Reads see a quantity change still waiting in the buffer
     private CartItemDto toDto(CartItem c) {
-        Product p = c.getProduct();
+        Integer buffered = cartQuantityBuffer.peek(c.getId());
+        return toDto(c.getId(), c.getProduct(), buffered != null ? buffered : c.getQuantity());
+    }
+
+    private CartItemDto toDto(Long cartItemId, Product p, Integer quantity) {
         ProductDto pd = ProductDto.builder()
                 .id(p.getId())
                 .title(p.getTitle())
@@ -43,9 +72,9 @@ public class CartServiceImpl implements CartService {
                 .imageUrl(p.getImageUrl())
                 .build();
         return CartItemDto.builder()
-                .id(c.getId())
+                .id(cartItemId)
                 .productId(p.getId())
-                .quantity(c.getQuantity())
+                .quantity(quantity)
                 .product(pd)
                 .build();
     }
@@ -56,23 +85,135 @@ public class CartServiceImpl implements CartService {
         return cartRepository.findByUser(user).stream().map(this::toDto).collect(Collectors.toList());
     }
 
+    // Cart read once, line upserted in one statement; the response is that cart with the new line applied
     @Override
+    @Transactional
     public List<CartItemDto> addItem(CartItemDto dto) {
+        int quantity = dto.getQuantity() != null ? dto.getQuantity() : 1;
+        if (quantity < 1) {
+            throw new BadRequestException("Quantity must be at least 1");
+        }
         User user = getCurrentUser();
-        Product product = productRepository.findById(dto.getProductId())
+        // the upsert adds to the stored quantity, so pending +/- changes must be stored first
+        cartQuantityBuffer.flushUser(user.getId());
+        List<CartItem> items = cartRepository.findByUser(user);
+        int existing = -1;
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i).getProduct().getId().equals(dto.getProductId())) {
+                existing = i;
+                break;
+            }
+        }
+        Product product = existing >= 0 ? items.get(existing).getProduct() : productRepository.findById(dto.getProductId())
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
 
-        CartItem item = CartItem.builder()
-                .user(user)
-                .product(product)
-                .quantity(dto.getQuantity())
-                .build();
-        cartRepository.save(item);
-        return getCartForCurrentUser();
+        CartRepository.UpsertedLine upserted = cartRepository.upsert(user.getId(), product.getId(), quantity);
+        // the statement's own result, so a concurrent add to the same line is reflected too
+        CartItemDto line = toDto(upserted.getId(), product, upserted.getQuantity());
+        List<CartItemDto> cart = items.stream().map(this::toDto).collect(Collectors.toList());
+        if (existing >= 0) {
+            cart.set(existing, line);
+        } else {
+            cart.add(line);
+        }
+        return cart;
+    }
+
+    // Operations are folded into one target quantity per product, then written together: changed
+    // lines are flushed as batched updates, removals are one delete, new products one lookup.
+    // New lines are upserted to their target so a concurrent add of the same product cannot fail the request.
+    @Override
+    @Transactional
+    public List<CartItemDto> applyOperations(List<CartOperation> operations) {
+        if (operations == null || operations.isEmpty()) {
+            throw new BadRequestException("At least one cart operation is required");
+        }
+        if (operations.size() > maxOperations) {
+            throw new BadRequestException("At most " + maxOperations + " cart operations per request");
+        }
+
+        User user = getCurrentUser();
+        cartQuantityBuffer.flushUser(user.getId());
+        Map<Long, CartItem> lines = new LinkedHashMap<>();
+        Map<Long, Integer> target = new LinkedHashMap<>();
+        for (CartItem item : cartRepository.findByUser(user)) {
+            lines.put(item.getProduct().getId(), item);
+            target.put(item.getProduct().getId(), item.getQuantity() != null ? item.getQuantity() : 0);
+        }
+        for (CartOperation operation : operations) {
+            if (operation.getOp() == null || operation.getProductId() == null) {
+                throw new BadRequestException("Each cart operation needs op and productId");
+            }
+            Long productId = operation.getProductId();
+            Integer quantity = operation.getQuantity();
+            switch (operation.getOp()) {
+                case ADD -> {
+                    int added = quantity != null ? quantity : 1;
+                    if (added < 1) {
+                        throw new BadRequestException("ADD quantity must be at least 1");
+                    }
+                    target.merge(productId, added, Integer::sum);
+                }
+                case SET -> {
+                    if (quantity == null || quantity < 0) {
+                        throw new BadRequestException("SET quantity must be 0 or more");
+                    }
+                    target.put(productId, quantity);
+                }
+                case REMOVE -> target.put(productId, 0);
+            }
+        }
+
+        Set<Long> newProductIds = target.entrySet().stream()
+                .filter(e -> e.getValue() > 0 && !lines.containsKey(e.getKey()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<Long, Product> newProducts = newProductIds.isEmpty() ? Map.of() : productRepository.findAllById(newProductIds)
+                .stream().collect(Collectors.toMap(Product::getId, Function.identity()));
+        if (newProducts.size() < newProductIds.size()) {
+            newProductIds.removeAll(newProducts.keySet());
+            throw new ResourceNotFoundException("Products not found: " + newProductIds);
+        }
+
+        List<CartItem> removed = new ArrayList<>();
+        List<CartItemDto> cart = new ArrayList<>();
+        for (Map.Entry<Long, Integer> entry : target.entrySet()) {
+            CartItem line = lines.get(entry.getKey());
+            int quantity = entry.getValue();
+            if (line == null) {
+                if (quantity > 0) {
+                    Product product = newProducts.get(entry.getKey());
+                    CartRepository.UpsertedLine upserted = cartRepository.upsertQuantity(user.getId(), product.getId(), quantity);
+                    cart.add(toDto(upserted.getId(), product, upserted.getQuantity()));
+                }
+            } else if (quantity == 0) {
+                removed.add(line);
+            } else {
+                // managed entity: a changed quantity is written by the flush at commit
+                line.setQuantity(quantity);
+                cart.add(toDto(line));
+            }
+        }
+        if (!removed.isEmpty()) {
+            cartRepository.deleteAllInBatch(removed);
+        }
+        return cart;
     }
 
+    // Bursts of +/- on one line cost one write per app.cart.coalesceWindowMs (see CartQuantityBuffer);
+    // only the first change of a burst queries that the line exists and belongs to the caller
     @Override
     public List<CartItemDto> updateItem(Long cartItemId, CartItemDto dto) {
+        if (cartQuantityBuffer.isEnabled() && dto.getQuantity() != null) {
+            User user = getCurrentUser();
+            if (!cartQuantityBuffer.isPendingFor(cartItemId, user.getId())
+                    && !cartRepository.existsByIdAndUserId(cartItemId, user.getId())) {
+                throw new ResourceNotFoundException("CartItem not found");
+            }
+            cartQuantityBuffer.buffer(cartItemId, user.getId(), dto.getQuantity());
+            return cartRepository.findByUser(user).stream().map(this::toDto).collect(Collectors.toList());
+        }
+
         CartItem item = cartRepository.findById(cartItemId)
                 .orElseThrow(() -> new ResourceNotFoundException("CartItem not found"));
         item.setQuantity(dto.getQuantity());
@@ -85,6 +226,7 @@ public class CartServiceImpl implements CartService {
         CartItem item = cartRepository.findById(cartItemId)
                 .orElseThrow(() -> new ResourceNotFoundException("CartItem not found"));
         cartRepository.delete(item);
+        cartQuantityBuffer.discard(cartItemId);
         return getCartForCurrentUser();
     }
 }
\ No newline at end of file
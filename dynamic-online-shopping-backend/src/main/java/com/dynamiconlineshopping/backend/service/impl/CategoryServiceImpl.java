@@ -0,0 +1,84 @@
+package com.dynamiconlineshopping.backend.service.impl;
+
+import com.dynamiconlineshopping.backend.dto.CategoryDto;
+import com.dynamiconlineshopping.backend.entity.Category;
+import com.dynamiconlineshopping.backend.exception.BadRequestException;
+import com.dynamiconlineshopping.backend.repository.CategoryRepository;
+import com.dynamiconlineshopping.backend.service.CategoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CategoryServiceImpl - category tree built from materialized paths.
+ */
+@Service
+@RequiredArgsConstructor
+public class CategoryServiceImpl implements CategoryService {
+
+    private final CategoryRepository categoryRepository;
+
+    private CategoryDto toDto(Category c) {
+        List<Long> path = Category.idsOnPath(c.getPath());
+        return CategoryDto.builder()
+                .id(c.getId())
+                .name(c.getName())
+                .parentId(path.size() > 1 ? path.get(path.size() - 2) : null)
+                .path(c.getPath())
+                .depth(c.getDepth())
+                .productCount(c.getProductCount())
+                .children(new ArrayList<>())
+                .build();
+    }
+
+    // One query for the whole tree; parents come from the path, so no parent rows are fetched
+    @Override
+    public List<CategoryDto> getTree() {
+        Map<Long, CategoryDto> byId = new LinkedHashMap<>();
+        for (Category category : categoryRepository.findAll()) {
+            byId.put(category.getId(), toDto(category));
+        }
+        List<CategoryDto> roots = new ArrayList<>();
+        for (CategoryDto node : byId.values()) {
+            CategoryDto parent = node.getParentId() != null ? byId.get(node.getParentId()) : null;
+            (parent != null ? parent.getChildren() : roots).add(node);
+        }
+        sortByName(roots);
+        return roots;
+    }
+
+    @Override
+    @Transactional
+    public CategoryDto create(CategoryDto dto) {
+        if (dto.getName() == null || dto.getName().isBlank()) {
+            throw new BadRequestException("Category name is required");
+        }
+        Category parent = null;
+        if (dto.getParentId() != null) {
+            parent = categoryRepository.findById(dto.getParentId())
+                    .orElseThrow(() -> new BadRequestException("Unknown parent category: " + dto.getParentId()));
+        }
+
+        Category category = categoryRepository.save(Category.builder()
+                .name(dto.getName().trim())
+                .parent(parent)
+                .depth(parent != null ? parent.getDepth() + 1 : 0)
+                .build());
+        // the path ends with the category's own id, so it can only be set once that is known
+        category.setPath((parent != null ? parent.getPath() : "/") + category.getId() + "/");
+        return toDto(categoryRepository.save(category));
+    }
+
+    private static void sortByName(List<CategoryDto> nodes) {
+        nodes.sort(Comparator.comparing(CategoryDto::getName, String.CASE_INSENSITIVE_ORDER));
+        for (CategoryDto node : nodes) {
+            sortByName(node.getChildren());
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package com.dynamiconlineshopping.backend.service.impl;
 
+import com.dynamiconlineshopping.backend.cache.CartQuantityBuffer;
+import com.dynamiconlineshopping.backend.cache.UserIdentityCache;
+import com.dynamiconlineshopping.backend.config.AuthenticatedUser;
 import com.dynamiconlineshopping.backend.dto.CartItemDto;
 import com.dynamiconlineshopping.backend.dto.OrderResponseDto;
+import com.dynamiconlineshopping.backend.dto.UserDto;
 import com.dynamiconlineshopping.backend.entity.CartItem;
 import com.dynamiconlineshopping.backend.entity.Order;
 import com.dynamiconlineshopping.backend.entity.User;
@@ -12,6 +16,8 @@ import com.dynamiconlineshopping.backend.repository.OrderRepository;
 import com.dynamiconlineshopping.backend.repository.UserRepository;
 import com.dynamiconlineshopping.backend.service.OrderService;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
@@ -26,10 +32,17 @@ public class OrderServiceImpl implements OrderService {
     private final CartRepository cartRepository;
     private final OrderRepository orderRepository;
     private final UserRepository userRepository;
+    private final UserIdentityCache userIdentityCache;
+    private final CartQuantityBuffer cartQuantityBuffer;
 
     private User getCurrentUser() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByEmail(email)
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        // Token carries the user id: a lazy reference is enough for FK use, no SELECT needed
+        if (auth.getPrincipal() instanceof AuthenticatedUser principal && principal.getId() != null) {
+            return userRepository.getReferenceById(principal.getId());
+        }
+        return userIdentityCache.findByEmail(auth.getName())
+                .map(identity -> userRepository.getReferenceById(identity.getId()))
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
     }
 
@@ -47,13 +60,31 @@ public class OrderServiceImpl implements OrderService {
                 .createdAt(o.getCreatedAt())
                 .items(List.of())
                 .razorpayOrderId(o.getRazorpayOrderId())
-                .user(o.getUser())
+                .user(toUserDto(o.getUser()))
+                .build();
+    }
+
+    // Never touch an uninitialized user proxy: that would cost the SELECT the reference avoided
+    private UserDto toUserDto(User u) {
+        if (u == null) {
+            return null;
+        }
+        if (!Hibernate.isInitialized(u)) {
+            return UserDto.builder().id(u.getId()).build();
+        }
+        return UserDto.builder()
+                .id(u.getId())
+                .email(u.getEmail())
+                .fullName(u.getFullName())
+                .role(u.getRole())
                 .build();
     }
 
     @Override
     public OrderResponseDto placeOrderForCurrentUser() {
         User user = getCurrentUser();
+        // the order is priced from stored quantities, so buffered cart changes are written first
+        cartQuantityBuffer.flushUser(user.getId());
         List<CartItem> items = cartRepository.findByUser(user);
         if (items.isEmpty()) {
             throw new ResourceNotFoundException("Cart is empty");
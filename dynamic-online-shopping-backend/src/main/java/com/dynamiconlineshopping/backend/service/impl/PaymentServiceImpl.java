@@ -9,6 +9,7 @@ import com.dynamiconlineshopping.backend.service.PaymentService;
 import com.razorpay.RazorpayClient;
 import com.razorpay.RazorpayException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -21,6 +22,7 @@ import java.time.Instant;
 import java.util.Base64;
 import java.util.Map;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class PaymentServiceImpl implements PaymentService {
@@ -40,7 +42,7 @@ public class PaymentServiceImpl implements PaymentService {
             Order order = orderRepository.findById(orderId)
                     .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
 
-            System.out.println("Creating Razorpay order for order ID: " + orderId + ", Amount: " + order.getTotalAmount());
+            log.info("Creating Razorpay order for order {} amount {}", orderId, order.getTotalAmount());
 
             RazorpayClient razorpay = new RazorpayClient(razorpayKeyId, razorpayKeySecret);
 
@@ -55,7 +57,7 @@ public class PaymentServiceImpl implements PaymentService {
             order.setRazorpayOrderId(razorpayOrder.get("id"));
             orderRepository.save(order);
 
-            System.out.println("Razorpay order created: " + razorpayOrder.get("id"));
+            log.info("Razorpay order {} created for order {}", razorpayOrder.get("id"), orderId);
 
             return Map.of(
                     "razorpay_order_id", razorpayOrder.get("id").toString(),
@@ -65,10 +67,10 @@ public class PaymentServiceImpl implements PaymentService {
             );
 
         } catch (RazorpayException e) {
-            System.err.println("Razorpay error: " + e.getMessage());
+            log.error("Razorpay error for order {}: {}", orderId, e.getMessage());
             throw new RuntimeException("Razorpay error: " + e.getMessage());
         } catch (Exception e) {
-            System.err.println("Unexpected error creating Razorpay order: " + e.getMessage());
+            log.error("Unexpected error creating Razorpay order for order {}", orderId, e);
             throw new RuntimeException("Failed to create payment order: " + e.getMessage());
         }
     }
@@ -76,8 +78,6 @@ public class PaymentServiceImpl implements PaymentService {
     @Override
     public Object verifyPayment(Map<String, String> payload) {
         try {
-            System.out.println("Payment verification payload: " + payload);
-
             String razorpayPaymentId = payload.get("razorpay_payment_id");
             String razorpayOrderId = payload.get("razorpay_order_id");
             String razorpaySignature = payload.get("razorpay_signature");
@@ -90,9 +90,8 @@ public class PaymentServiceImpl implements PaymentService {
             String data = razorpayOrderId + "|" + razorpayPaymentId;
             String generatedSignature = calculateHMAC(data, razorpayKeySecret);
 
-            System.out.println("Data for HMAC: " + data);
-            System.out.println("Generated signature: " + generatedSignature);
-            System.out.println("Received signature: " + razorpaySignature);
+            // signatures are never logged
+            log.debug("Verifying payment {} for Razorpay order {}", razorpayPaymentId, razorpayOrderId);
 
             // Compare signatures securely
             if (!isEqual(generatedSignature, razorpaySignature)) {
@@ -118,7 +117,7 @@ public class PaymentServiceImpl implements PaymentService {
                     .build();
             paymentRepository.save(payment);
 
-            System.out.println("Payment verified successfully for order: " + order.getId());
+            log.info("Payment verified for order {}", order.getId());
 
             return Map.of(
                     "status", "success",
@@ -127,7 +126,7 @@ public class PaymentServiceImpl implements PaymentService {
             );
 
         } catch (Exception e) {
-            System.err.println("Payment verification failed: " + e.getMessage());
+            log.warn("Payment verification failed: {}", e.getMessage());
             throw new RuntimeException("Payment verification failed: " + e.getMessage());
         }
     }
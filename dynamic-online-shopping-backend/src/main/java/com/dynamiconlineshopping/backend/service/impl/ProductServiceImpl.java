@@ -1,14 +1,48 @@
 package com.dynamiconlineshopping.backend.service.impl;
 
+import com.dynamiconlineshopping.backend.cache.CatalogSnapshot;
+import com.dynamiconlineshopping.backend.cache.MappedCatalog;
+import com.dynamiconlineshopping.backend.cache.ProductCache;
+import com.dynamiconlineshopping.backend.cache.SingleFlight;
+import com.dynamiconlineshopping.backend.dto.ProductBatch;
 import com.dynamiconlineshopping.backend.dto.ProductDto;
+import com.dynamiconlineshopping.backend.dto.ProductPage;
+import com.dynamiconlineshopping.backend.dto.ProductPageRequest;
+import com.dynamiconlineshopping.backend.dto.ProductSearchPage;
+import com.dynamiconlineshopping.backend.dto.ProductSuggestion;
+import com.dynamiconlineshopping.backend.dto.ProductVersion;
+import com.dynamiconlineshopping.backend.entity.Category;
 import com.dynamiconlineshopping.backend.entity.Product;
+import com.dynamiconlineshopping.backend.enums.ProductSort;
+import com.dynamiconlineshopping.backend.exception.BadRequestException;
+import com.dynamiconlineshopping.backend.exception.ConflictException;
 import com.dynamiconlineshopping.backend.exception.ResourceNotFoundException;
+import com.dynamiconlineshopping.backend.repository.CategoryRepository;
 import com.dynamiconlineshopping.backend.repository.ProductRepository;
+import com.dynamiconlineshopping.backend.search.Bm25Index;
+import com.dynamiconlineshopping.backend.search.CatalogIndex;
+import com.dynamiconlineshopping.backend.search.ColumnarCatalog;
+import com.dynamiconlineshopping.backend.search.ProductSearchIndex;
+import com.dynamiconlineshopping.backend.search.ProductTypeahead;
 import com.dynamiconlineshopping.backend.service.ProductService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -19,6 +53,38 @@ import java.util.stream.Collectors;
 public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductCache productCache;
+    private final CatalogSnapshot catalogSnapshot;
+    private final MappedCatalog mappedCatalog;
+    private final SingleFlight singleFlight;
+    private final ProductSearchIndex productSearchIndex;
+    private final CatalogIndex catalogIndex;
+    private final ProductTypeahead productTypeahead;
+
+    @Value("${app.products.page.defaultSize:20}")
+    private int defaultPageSize = 20;
+
+    @Value("${app.products.page.maxSize:100}")
+    private int maxPageSize = 100;
+
+    // The unpaged list is kept for existing clients but never reads more than this many rows
+    @Value("${app.products.unpagedLimit:1000}")
+    private int unpagedLimit = 1000;
+
+    // How long concurrent readers of a product wait for the one load in flight
+    @Value("${app.products.loadTimeoutMs:2000}")
+    private long loadTimeoutMs = 2000;
+
+    @Value("${app.products.batch.maxSize:100}")
+    private int maxBatchSize = 100;
+
+    @Value("${app.search.maxResults:1000}")
+    private int maxSearchResults = 1000;
+
+    @Value("${app.typeahead.topK:10}")
+    private int maxSuggestions = 10;
 
     private ProductDto toDto(Product p) {
         return ProductDto.builder()
@@ -29,6 +95,9 @@ public class ProductServiceImpl implements ProductService {
                 .stock(p.getStock())
                 .sku(p.getSku())
                 .imageUrl(p.getImageUrl())
+                .version(p.getVersion())
+                .updatedAt(p.getUpdatedAt())
+                .categoryId(p.getCategory() != null ? p.getCategory().getId() : null)
                 .build();
     }
 
@@ -38,34 +107,259 @@ public class ProductServiceImpl implements ProductService {
                 .description(dto.getDescription())
                 .price(dto.getPrice())
                 .stock(dto.getStock())
-                .sku(dto.getSku())
+                .sku(normalizeSku(dto.getSku()))
                 .imageUrl(dto.getImageUrl())
                 .build();
     }
 
+    // Blank SKUs are stored as null: the unique index allows any number of nulls but only one ""
+    private static String normalizeSku(String sku) {
+        return sku == null || sku.isBlank() ? null : sku.trim();
+    }
+
     @Override
     public List<ProductDto> getAll() {
         try {
-            return productRepository.findAll().stream()
-                    .map(this::toDto)
-                    .collect(Collectors.toList());
+            return loadAll();
         } catch (Exception e) {
             return List.of();
         }
     }
 
+    // Pre-rendered bytes of getAll(), or null while a rebuild is pending
+    @Override
+    public CatalogSnapshot.Rendered getCatalogSnapshot() {
+        return catalogSnapshot.current(this::loadAll);
+    }
+
+    private List<ProductDto> loadAll() {
+        return productCache.getPage("all", () ->
+                productRepository.findSliceByIdAsc(0L, null, null, false, PageRequest.ofSize(unpagedLimit)).stream()
+                        .map(this::toDto)
+                        .collect(Collectors.toList()));
+    }
+
+    @Override
+    public ProductPage getPage(ProductPageRequest request) {
+        ProductSort sort = request.getSort() != null ? request.getSort() : ProductSort.ID_ASC;
+        int limit = request.getLimit() == null ? defaultPageSize : Math.max(1, Math.min(request.getLimit(), maxPageSize));
+        Double minPrice = request.getMinPrice();
+        Double maxPrice = request.getMaxPrice();
+        boolean inStock = request.isInStock();
+        Cursor after = decodeCursor(request.getCursor(), sort);
+
+        String key = sort + "|" + request.getCursor() + "|" + limit + "|" + minPrice + "|" + maxPrice + "|" + inStock;
+        return productCache.getPage(key, () -> loadPage(sort, after, limit, minPrice, maxPrice, inStock));
+    }
+
+    private ProductPage loadPage(ProductSort sort, Cursor after, int limit, Double minPrice, Double maxPrice, boolean inStock) {
+        boolean descending = sort == ProductSort.NEWEST || sort == ProductSort.PRICE_DESC;
+        long afterId = after != null ? after.id() : (descending ? Long.MAX_VALUE : 0L);
+        Double afterPrice = after != null ? after.price() : null;
+
+        List<Product> page;
+        boolean hasMore;
+        if (catalogIndex.isReady()) {
+            // filter, sort and seek on the in-memory columns; only the page itself is read, by primary key
+            ColumnarCatalog.Slice slice = catalogIndex.query(sort, afterPrice, afterId, minPrice, maxPrice, inStock, limit);
+            page = findInOrder(Arrays.stream(slice.ids()).boxed().toList());
+            hasMore = slice.hasMore();
+        } else {
+            // One extra row tells us whether another page exists without a count query
+            PageRequest slice = PageRequest.ofSize(limit + 1);
+            List<Product> rows = switch (sort) {
+                case ID_ASC -> productRepository.findSliceByIdAsc(afterId, minPrice, maxPrice, inStock, slice);
+                case NEWEST -> productRepository.findSliceByIdDesc(afterId, minPrice, maxPrice, inStock, slice);
+                case PRICE_ASC -> productRepository.findSliceByPriceAsc(afterPrice, afterId, minPrice, maxPrice, inStock, slice);
+                case PRICE_DESC -> productRepository.findSliceByPriceDesc(afterPrice, afterId, minPrice, maxPrice, inStock, slice);
+            };
+            hasMore = rows.size() > limit;
+            page = hasMore ? rows.subList(0, limit) : rows;
+        }
+        return toPage(sort, page, hasMore, limit);
+    }
+
+    private ProductPage toPage(ProductSort sort, List<Product> page, boolean hasMore, int limit) {
+        String nextCursor = hasMore && !page.isEmpty() ? encodeCursor(sort, page.get(page.size() - 1)) : null;
+        return ProductPage.builder()
+                .items(page.stream().map(this::toDto).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .limit(limit)
+                .build();
+    }
+
+    // Products of the category and all its subcategories, in id order
+    @Override
+    public ProductPage getByCategory(Long categoryId, String cursor, Integer limit) {
+        int pageLimit = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        Cursor after = decodeCursor(cursor, ProductSort.ID_ASC);
+
+        return productCache.getPage("category|" + categoryId + "|" + cursor + "|" + pageLimit, () -> {
+            Category category = categoryRepository.findById(categoryId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
+            List<Long> subtree = categoryRepository.findSubtreeIds(category.getPath());
+            List<Product> rows = productRepository.findSliceByCategoryIn(
+                    subtree, after != null ? after.id() : 0L, PageRequest.ofSize(pageLimit + 1));
+            boolean hasMore = rows.size() > pageLimit;
+            return toPage(ProductSort.ID_ASC, hasMore ? rows.subList(0, pageLimit) : rows, hasMore, pageLimit);
+        });
+    }
+
+    // Products for the given ids in that order; ids deleted in the meantime are skipped
+    private List<Product> findInOrder(List<Long> ids) {
+        Map<Long, Product> byId = productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    // Ranking runs on the in-memory index; only the requested page is read from the database (by primary key)
+    @Override
+    public ProductSearchPage search(String query, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        int offset = Math.max(0, page) * pageSize;
+        if (offset + pageSize > maxSearchResults) {
+            throw new BadRequestException("Search results are limited to the first " + maxSearchResults);
+        }
+
+        Bm25Index.Hits hits = productSearchIndex.search(query, offset, pageSize);
+        List<Long> ids = Arrays.stream(hits.productIds()).boxed().toList();
+
+        return ProductSearchPage.builder()
+                .items(findInOrder(ids).stream().map(this::toDto).collect(Collectors.toList()))
+                .total(hits.total())
+                .page(Math.max(0, page))
+                .size(pageSize)
+                .build();
+    }
+
+    @Override
+    public List<ProductSuggestion> suggest(String prefix, int limit) {
+        return productTypeahead.suggest(prefix, Math.max(1, Math.min(limit, maxSuggestions)));
+    }
+
+    // Cursor = base64url("SORT:price:id"), the sort key of the last row served
+    private static String encodeCursor(ProductSort sort, Product last) {
+        String raw = sort.name() + ":" + (last.getPrice() != null ? last.getPrice() : "") + ":" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Cursor decodeCursor(String cursor, ProductSort sort) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", 3);
+            if (parts.length != 3 || !parts[0].equals(sort.name())) {
+                throw new BadRequestException("Cursor does not match sort " + sort.name().toLowerCase());
+            }
+            Double price = parts[1].isEmpty() ? null : Double.valueOf(parts[1]);
+            return new Cursor(price, Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    private record Cursor(Double price, long id) {
+    }
+
+    private record ProductFlight(Long id, long writeGeneration) {
+    }
+
+    // Cache, then the mapped catalog file (when enabled and current), then the database;
+    // concurrent misses for one id share a single load. File hits are not cached: the file
+    // may still be unverified, and the cache would keep its answer for the full TTL.
     @Override
     public ProductDto getById(Long id) {
-        Product p = productRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Product not found"));
-        return toDto(p);
+        ProductDto cached = productCache.peek(id);
+        if (cached != null) {
+            return cached;
+        }
+        ProductDto mapped = mappedCatalog.find(id);
+        if (mapped != null) {
+            return mapped;
+        }
+        // a caller arriving after a write must not join a load that may have read the row before it
+        ProductFlight flight = new ProductFlight(id, productCache.writeGeneration());
+        return singleFlight.execute("productById", flight, Duration.ofMillis(loadTimeoutMs), () ->
+                productCache.getById(id, key -> productRepository.findById(key)
+                        .map(this::toDto)
+                        .orElseThrow(() -> new ResourceNotFoundException("Product not found"))));
+    }
+
+    // Ids go through the product cache (one IN query for all misses), SKUs through one IN query;
+    // a product is answered once even when asked for by id and by SKU, everything else keeps request order
+    @Override
+    public ProductBatch getBatch(List<Long> ids, List<String> skus) {
+        List<Long> wantedIds = ids == null ? List.of() : ids.stream().filter(Objects::nonNull).distinct().toList();
+        List<String> wantedSkus = skus == null ? List.of() : skus.stream()
+                .filter(Objects::nonNull).map(String::trim).filter(sku -> !sku.isEmpty()).distinct().toList();
+        if (wantedIds.size() + wantedSkus.size() > maxBatchSize) {
+            throw new BadRequestException("At most " + maxBatchSize + " ids and skus per request");
+        }
+
+        Map<Long, ProductDto> byId = wantedIds.isEmpty() ? Map.of() : productCache.getByIds(wantedIds, missing ->
+                productRepository.findAllById(missing).stream()
+                        .collect(Collectors.toMap(Product::getId, this::toDto)));
+        Map<String, ProductDto> bySku = wantedSkus.isEmpty() ? Map.of() : productRepository.findBySkuIn(wantedSkus).stream()
+                .collect(Collectors.toMap(Product::getSku, this::toDto));
+
+        List<ProductDto> items = new ArrayList<>(wantedIds.size() + wantedSkus.size());
+        Set<Long> answered = new HashSet<>();
+        List<Long> missingIds = new ArrayList<>();
+        List<String> missingSkus = new ArrayList<>();
+        for (Long id : wantedIds) {
+            ProductDto dto = byId.get(id);
+            if (dto == null) {
+                missingIds.add(id);
+            } else if (answered.add(dto.getId())) {
+                items.add(dto);
+            }
+        }
+        for (String sku : wantedSkus) {
+            ProductDto dto = bySku.get(sku);
+            if (dto == null) {
+                missingSkus.add(sku);
+            } else if (answered.add(dto.getId())) {
+                items.add(dto);
+            }
+        }
+        return ProductBatch.builder().items(items).missingIds(missingIds).missingSkus(missingSkus).build();
+    }
+
+    // Answered from the cached product or the mapped catalog file when possible, otherwise by a three-column query
+    @Override
+    public ProductVersion getVersion(Long id) {
+        ProductDto cached = productCache.peek(id);
+        if (cached != null && cached.getVersion() != null) {
+            return new ProductVersion(cached.getId(), cached.getVersion(), cached.getUpdatedAt());
+        }
+        ProductVersion mapped = mappedCatalog.findVersion(id);
+        if (mapped != null) {
+            return mapped;
+        }
+        return productRepository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
     }
 
     @Override
     public ProductDto create(ProductDto dto) {
         try {
-            Product product = toEntity(dto);
-            Product saved = productRepository.save(product);
+            Product saved = productCache.write(null, () -> transactionTemplate.execute(status -> {
+                Product product = toEntity(dto);
+                product.setCategory(resolveCategory(dto.getCategoryId()));
+                Product created = productRepository.save(product);
+                moveInCategoryCounts(null, created.getCategory());
+                return created;
+            }));
+            productSearchIndex.onSaved(saved);
+            catalogIndex.onSaved(saved);
+            productTypeahead.markStale();
+            catalogSnapshot.invalidate(this::loadAll);
+            mappedCatalog.invalidate();
             return toDto(saved);
+        } catch (BadRequestException | ResourceNotFoundException e) {
+            // client errors keep their status (400/404) instead of becoming a 500
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Failed to create product: " + e.getMessage());
         }
@@ -74,19 +368,36 @@ public class ProductServiceImpl implements ProductService {
     @Override
     public ProductDto update(Long id, ProductDto dto) {
         try {
-            Product existing = productRepository.findById(id)
-                    .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
-
-            // Update fields
-            existing.setTitle(dto.getTitle());
-            existing.setDescription(dto.getDescription());
-            existing.setPrice(dto.getPrice());
-            existing.setStock(dto.getStock());
-            existing.setSku(dto.getSku());
-            existing.setImageUrl(dto.getImageUrl());
-
-            Product updated = productRepository.save(existing);
+            // hide the mapped file first so no read during the write can re-cache the old row from it
+            mappedCatalog.invalidate();
+            Product updated = productCache.write(id, () -> transactionTemplate.execute(status -> {
+                Product existing = productRepository.findById(id)
+                        .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+                Category previousCategory = existing.getCategory();
+
+                // Update fields
+                existing.setTitle(dto.getTitle());
+                existing.setDescription(dto.getDescription());
+                existing.setPrice(dto.getPrice());
+                existing.setStock(dto.getStock());
+                existing.setSku(normalizeSku(dto.getSku()));
+                existing.setImageUrl(dto.getImageUrl());
+                existing.setCategory(resolveCategory(dto.getCategoryId()));
+
+                Product saved = productRepository.save(existing);
+                moveInCategoryCounts(previousCategory, saved.getCategory());
+                return saved;
+            }));
+            productSearchIndex.onSaved(updated);
+            catalogIndex.onSaved(updated);
+            productTypeahead.markStale();
+            catalogSnapshot.invalidate(this::loadAll);
+            mappedCatalog.invalidate();
             return toDto(updated);
+        } catch (BadRequestException | ResourceNotFoundException e) {
+            throw e;
+        } catch (OptimisticLockingFailureException e) {
+            throw new ConflictException("Product " + id + " was changed concurrently; reload it and retry");
         } catch (Exception e) {
             throw new RuntimeException("Failed to update product: " + e.getMessage());
         }
@@ -95,11 +406,47 @@ public class ProductServiceImpl implements ProductService {
     @Override
     public void delete(Long id) {
         try {
-            Product existing = productRepository.findById(id)
-                    .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
-            productRepository.delete(existing);
+            mappedCatalog.invalidate();
+            productCache.write(id, () -> transactionTemplate.execute(status -> {
+                Product existing = productRepository.findById(id)
+                        .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+                moveInCategoryCounts(existing.getCategory(), null);
+                productRepository.delete(existing);
+                return existing;
+            }));
+            productSearchIndex.onDeleted(id);
+            catalogIndex.onDeleted(id);
+            productTypeahead.markStale();
+            catalogSnapshot.invalidate(this::loadAll);
+            mappedCatalog.invalidate();
+        } catch (BadRequestException | ResourceNotFoundException e) {
+            throw e;
+        } catch (OptimisticLockingFailureException e) {
+            throw new ConflictException("Product " + id + " was changed concurrently; reload it and retry");
         } catch (Exception e) {
             throw new RuntimeException("Failed to delete product: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    private Category resolveCategory(Long categoryId) {
+        if (categoryId == null) {
+            return null;
+        }
+        return categoryRepository.findById(categoryId)
+                .orElseThrow(() -> new BadRequestException("Unknown category: " + categoryId));
+    }
+
+    // Runs in the product write's transaction: ancestors shared by both paths keep their count
+    private void moveInCategoryCounts(Category from, Category to) {
+        List<Long> left = Category.idsOnPath(from != null ? from.getPath() : null);
+        List<Long> joined = Category.idsOnPath(to != null ? to.getPath() : null);
+        List<Long> decrement = left.stream().filter(categoryId -> !joined.contains(categoryId)).toList();
+        List<Long> increment = joined.stream().filter(categoryId -> !left.contains(categoryId)).toList();
+        if (!decrement.isEmpty()) {
+            categoryRepository.adjustProductCount(decrement, -1);
+        }
+        if (!increment.isEmpty()) {
+            categoryRepository.adjustProductCount(increment, 1);
+        }
+    }
+}
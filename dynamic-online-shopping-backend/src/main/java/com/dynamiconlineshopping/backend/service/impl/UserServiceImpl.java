@@ -1,7 +1,11 @@
 package com.dynamiconlineshopping.backend.service.impl;
 
+import com.dynamiconlineshopping.backend.cache.SingleFlight;
+import com.dynamiconlineshopping.backend.cache.UserIdentityCache;
+import com.dynamiconlineshopping.backend.config.TokenRevocationList;
 import com.dynamiconlineshopping.backend.dto.UserDto;
 import com.dynamiconlineshopping.backend.entity.User;
+import com.dynamiconlineshopping.backend.enums.OrderStatus;
 import com.dynamiconlineshopping.backend.enums.Role;
 import com.dynamiconlineshopping.backend.exception.ResourceNotFoundException;
 import com.dynamiconlineshopping.backend.repository.OrderRepository;
@@ -9,8 +13,10 @@ import com.dynamiconlineshopping.backend.repository.ProductRepository;
 import com.dynamiconlineshopping.backend.repository.UserRepository;
 import com.dynamiconlineshopping.backend.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -23,6 +29,13 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final OrderRepository orderRepository;
     private final ProductRepository productRepository;
+    private final UserIdentityCache userIdentityCache;
+    private final TokenRevocationList tokenRevocationList;
+    private final SingleFlight singleFlight;
+
+    // Dashboards polled by several admins at once share one round of count queries
+    @Value("${app.admin.statsTimeoutMs:5000}")
+    private long statsTimeoutMs = 5000;
 
     private UserDto toDto(User user) {
         return UserDto.builder()
@@ -54,12 +67,19 @@ public class UserServiceImpl implements UserService {
 
         user.setRole(Role.valueOf(role.toUpperCase()));
         User updatedUser = userRepository.save(user);
+        userIdentityCache.invalidate(updatedUser.getEmail());
+        // Existing access tokens still carry the old role claim
+        tokenRevocationList.revokeUser(updatedUser.getId());
 
         return toDto(updatedUser);
     }
 
     @Override
     public Map<String, Object> getDashboardStats() {
+        return singleFlight.execute("dashboardStats", "all", Duration.ofMillis(statsTimeoutMs), this::loadDashboardStats);
+    }
+
+    private Map<String, Object> loadDashboardStats() {
         Map<String, Object> stats = new HashMap<>();
 
         try {
@@ -78,11 +98,8 @@ public class UserServiceImpl implements UserService {
             usersByRole.put("CUSTOMER", userRepository.countByRole(Role.CUSTOMER));
             stats.put("usersByRole", usersByRole);
 
-            // Calculate total revenue from PAID orders
-            Double totalRevenue = orderRepository.findAll().stream()
-                    .filter(order -> order.getStatus() != null && order.getStatus().name().equals("PAID"))
-                    .mapToDouble(order -> order.getTotalAmount() != null ? order.getTotalAmount() : 0.0)
-                    .sum();
+            // Total revenue from PAID orders, summed by the database
+            Double totalRevenue = orderRepository.sumTotalAmountByStatus(OrderStatus.PAID);
             stats.put("totalRevenue", totalRevenue);
 
             // Recent orders (last 5)
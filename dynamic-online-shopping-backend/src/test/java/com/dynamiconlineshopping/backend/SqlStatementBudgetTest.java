@@ -0,0 +1,100 @@
+package com.dynamiconlineshopping.backend;
+
+import com.dynamiconlineshopping.backend.config.SqlStatementCountFilter;
+import com.dynamiconlineshopping.backend.entity.CartItem;
+import com.dynamiconlineshopping.backend.entity.Order;
+import com.dynamiconlineshopping.backend.entity.Product;
+import com.dynamiconlineshopping.backend.entity.User;
+import com.dynamiconlineshopping.backend.enums.OrderStatus;
+import com.dynamiconlineshopping.backend.enums.Role;
+import com.dynamiconlineshopping.backend.repository.CartRepository;
+import com.dynamiconlineshopping.backend.repository.OrderRepository;
+import com.dynamiconlineshopping.backend.repository.ProductRepository;
+import com.dynamiconlineshopping.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL statement budgets per endpoint, read from the X-SQL-Statements header. Each budget is
+ * checked with a few rows and with many: the count must not grow with the data.
+ */
+@SpringBootTest(properties = "app.sql.statementCountHeader=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SqlStatementBudgetTest {
+
+    private static final String SHOPPER = "budget-shopper@shop.test";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CartRepository cartRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Test
+    @WithMockUser(username = SHOPPER)
+    void getCart_atMostTwoStatements() throws Exception {
+        User shopper = shopper();
+        addToCart(shopper, 2);
+        assertThat(statements(get("/api/cart"))).isLessThanOrEqualTo(2);
+
+        addToCart(shopper, 20);
+        assertThat(statements(get("/api/cart"))).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void adminOrders_atMostOneStatement() throws Exception {
+        User shopper = shopper();
+        placeOrders(shopper, 2);
+        assertThat(statements(get("/api/admin/orders"))).isLessThanOrEqualTo(1);
+
+        placeOrders(shopper, 20);
+        assertThat(statements(get("/api/admin/orders"))).isLessThanOrEqualTo(1);
+        assertThat(statements(get("/api/admin/orders/status/PENDING"))).isLessThanOrEqualTo(1);
+    }
+
+    private long statements(RequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andExpect(status().isOk()).andReturn();
+        String header = result.getResponse().getHeader(SqlStatementCountFilter.HEADER);
+        assertThat(header).isNotNull();
+        return Long.parseLong(header);
+    }
+
+    private User shopper() {
+        return userRepository.findByEmail(SHOPPER).orElseGet(() -> userRepository.save(
+                User.builder().email(SHOPPER).password("x").fullName("Budget Shopper").role(Role.CUSTOMER).build()));
+    }
+
+    private void addToCart(User user, int items) {
+        for (int i = 0; i < items; i++) {
+            Product product = productRepository.save(Product.builder().title("Budget item " + i).price(10.0).stock(5).build());
+            cartRepository.save(CartItem.builder().user(user).product(product).quantity(1).build());
+        }
+    }
+
+    private void placeOrders(User user, int orders) {
+        for (int i = 0; i < orders; i++) {
+            orderRepository.save(Order.builder().user(user).totalAmount(10.0)
+                    .status(OrderStatus.PENDING).createdAt(Instant.now()).build());
+        }
+    }
+}
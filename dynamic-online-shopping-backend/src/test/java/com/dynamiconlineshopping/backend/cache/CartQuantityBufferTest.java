@@ -0,0 +1,93 @@
+package com.dynamiconlineshopping.backend.cache;
+
+import com.dynamiconlineshopping.backend.repository.CartRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class CartQuantityBufferTest {
+
+    private final CartRepository cartRepository = mock(CartRepository.class);
+    private CartQuantityBuffer buffer;
+
+    @AfterEach
+    void tearDown() {
+        if (buffer != null) {
+            buffer.shutdown();
+        }
+    }
+
+    @Test
+    void burst_isWrittenOnce_withLastQuantity() {
+        buffer = new CartQuantityBuffer(cartRepository, 50);
+
+        buffer.buffer(7L, 1L, 2);
+        buffer.buffer(7L, 1L, 3);
+        buffer.buffer(7L, 1L, 1);
+        assertThat(buffer.peek(7L)).isEqualTo(1);
+
+        verify(cartRepository, timeout(2000)).updateQuantity(7L, 1);
+        verify(cartRepository, after(200).times(1)).updateQuantity(anyLong(), anyInt());
+        assertThat(buffer.isPendingFor(7L, 1L)).isFalse();
+        assertThat(buffer.peek(7L)).isNull();
+    }
+
+    @Test
+    void flushUser_writesOnlyThatUsersLines_rightAway() {
+        buffer = new CartQuantityBuffer(cartRepository, 60_000);
+        buffer.buffer(7L, 1L, 4);
+        buffer.buffer(8L, 2L, 9);
+
+        buffer.flushUser(1L);
+
+        verify(cartRepository).updateQuantity(7L, 4);
+        verify(cartRepository, never()).updateQuantity(eq(8L), anyInt());
+        assertThat(buffer.peek(8L)).isEqualTo(9);
+        assertThat(buffer.isPendingFor(8L, 2L)).isTrue();
+        assertThat(buffer.isPendingFor(8L, 1L)).isFalse();
+    }
+
+    @Test
+    void changeAfterFlush_opensNewWindow() {
+        buffer = new CartQuantityBuffer(cartRepository, 60_000);
+        buffer.buffer(7L, 1L, 4);
+        buffer.flushUser(1L);
+        buffer.buffer(7L, 1L, 5);
+
+        assertThat(buffer.peek(7L)).isEqualTo(5);
+        buffer.flushUser(1L);
+        verify(cartRepository).updateQuantity(7L, 5);
+    }
+
+    @Test
+    void discardedLine_isNeverWritten_andShutdownFlushesTheRest() {
+        buffer = new CartQuantityBuffer(cartRepository, 60_000);
+        buffer.buffer(7L, 1L, 4);
+        buffer.buffer(8L, 1L, 2);
+        buffer.discard(7L);
+
+        buffer.shutdown();
+        buffer = null;
+
+        verify(cartRepository).updateQuantity(8L, 2);
+        verify(cartRepository, never()).updateQuantity(eq(7L), anyInt());
+    }
+
+    @Test
+    void failedFlush_keepsValueBuffered() {
+        buffer = new CartQuantityBuffer(cartRepository, 60_000);
+        when(cartRepository.updateQuantity(7L, 4)).thenThrow(new IllegalStateException("db down"));
+        buffer.buffer(7L, 1L, 4);
+
+        try {
+            buffer.flushUser(1L);
+        } catch (IllegalStateException expected) {
+            // surfaces to the caller, e.g. order placement
+        }
+        assertThat(buffer.peek(7L)).isEqualTo(4);
+    }
+}
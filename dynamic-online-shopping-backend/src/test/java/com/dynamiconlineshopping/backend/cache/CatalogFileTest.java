@@ -0,0 +1,57 @@
+package com.dynamiconlineshopping.backend.cache;
+
+import com.dynamiconlineshopping.backend.dto.CatalogFingerprint;
+import com.dynamiconlineshopping.backend.dto.ProductDto;
+import com.dynamiconlineshopping.backend.entity.Product;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void writeThenOpen_roundTripsProducts_andFingerprint() throws Exception {
+        Path path = dir.resolve("catalog.bin");
+        Instant updated = Instant.parse("2025-03-01T10:15:30.123Z");
+        Product phone = Product.builder().id(7L).title("Phöne").description("Nice").price(99.5).stock(3)
+                .sku("PH-7").version(2L).updatedAt(updated).build();
+        Product bare = Product.builder().id(2L).title("Bare").build();
+        CatalogFingerprint fingerprint = new CatalogFingerprint(2L, updated, 2L);
+
+        CatalogFile.write(path, List.of(phone, bare), fingerprint);
+        CatalogFile file = CatalogFile.open(path);
+
+        assertThat(file.size()).isEqualTo(2);
+        assertThat(file.fingerprint().sameAs(fingerprint)).isTrue();
+        ProductDto found = file.find(7L);
+        assertThat(found.getTitle()).isEqualTo("Phöne");
+        assertThat(found.getPrice()).isEqualTo(99.5);
+        assertThat(found.getStock()).isEqualTo(3);
+        assertThat(found.getImageUrl()).isNull();
+        assertThat(found.getUpdatedAt()).isEqualTo(updated);
+        assertThat(file.findVersion(7L).getVersion()).isEqualTo(2L);
+
+        ProductDto empty = file.find(2L);
+        assertThat(empty.getPrice()).isNull();
+        assertThat(empty.getStock()).isNull();
+        assertThat(file.find(5L)).isNull();
+    }
+
+    @Test
+    void open_ignoresMissingOrForeignFiles() throws Exception {
+        assertThat(CatalogFile.open(dir.resolve("missing.bin"))).isNull();
+
+        Path foreign = dir.resolve("foreign.bin");
+        Files.write(foreign, new byte[64]);
+        assertThat(CatalogFile.open(foreign)).isNull();
+    }
+}
@@ -0,0 +1,62 @@
+package com.dynamiconlineshopping.backend.cache;
+
+import com.dynamiconlineshopping.backend.dto.ProductDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogSnapshotTest {
+
+    private final CatalogSnapshot snapshot = new CatalogSnapshot(new ObjectMapper().findAndRegisterModules());
+    private final Supplier<List<ProductDto>> source =
+            () -> List.of(ProductDto.builder().id(1L).title("Phone").version(2L).build());
+
+    @AfterEach
+    void tearDown() {
+        snapshot.shutdown();
+    }
+
+    @Test
+    void rebuild_rendersJsonAndGzip_withListETag() throws Exception {
+        snapshot.rebuild(source);
+
+        CatalogSnapshot.Rendered rendered = snapshot.current(source);
+        assertThat(rendered).isNotNull();
+        assertThat(new String(rendered.json(), StandardCharsets.UTF_8)).contains("\"title\":\"Phone\"");
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(rendered.gzip()))) {
+            assertThat(in.readAllBytes()).isEqualTo(rendered.json());
+        }
+        assertThat(rendered.etag()).isEqualTo(CatalogETags.list(source.get(), null, 0));
+    }
+
+    @Test
+    void invalidate_hidesSnapshotUntilRebuilt() throws Exception {
+        snapshot.rebuild(source);
+        CountDownLatch release = new CountDownLatch(1);
+        snapshot.invalidate(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return List.of();
+        });
+
+        // the background rebuild is parked, so only the stale snapshot exists
+        assertThat(snapshot.current(List::of)).isNull();
+
+        release.countDown();
+        snapshot.rebuild(List::of);
+        assertThat(snapshot.current(List::of)).isNotNull();
+        assertThat(snapshot.current(List::of).json()).isEqualTo("[]".getBytes(StandardCharsets.UTF_8));
+    }
+}
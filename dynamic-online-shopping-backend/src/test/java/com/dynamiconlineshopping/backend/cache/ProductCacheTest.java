@@ -0,0 +1,105 @@
+package com.dynamiconlineshopping.backend.cache;
+
+import com.dynamiconlineshopping.backend.dto.ProductDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductCacheTest {
+
+    private SimpleMeterRegistry registry;
+    private ProductCache cache;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        cache = new ProductCache(registry, 100, 100, 60);
+    }
+
+    @Test
+    void getById_loadsOnce_andRecordsHits() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.getById(1L, id -> dto(id, "v" + loads.incrementAndGet()));
+        ProductDto second = cache.getById(1L, id -> dto(id, "v" + loads.incrementAndGet()));
+
+        assertThat(second.getTitle()).isEqualTo("v1");
+        assertThat(loads).hasValue(1);
+        assertThat(registry.get("cache.gets").tag("cache", "products").tag("result", "hit").functionCounter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void readsDuringWrite_bypassCache_andWriteInvalidatesProductAndPages() {
+        cache.getById(1L, id -> dto(id, "old"));
+        cache.getPage("all", () -> List.of(dto(1L, "old")));
+
+        cache.write(1L, () -> {
+            // the write has not finished: nothing stale may be served or cached
+            assertThat(cache.getById(1L, id -> dto(id, "db")).getTitle()).isEqualTo("db");
+            assertThat(cache.<List<ProductDto>>getPage("all", () -> List.of()).isEmpty()).isTrue();
+            return null;
+        });
+
+        assertThat(cache.getById(1L, id -> dto(id, "new")).getTitle()).isEqualTo("new");
+        assertThat(cache.<List<ProductDto>>getPage("all", () -> List.of(dto(1L, "new"))).get(0).getTitle()).isEqualTo("new");
+    }
+
+    @Test
+    void writeGeneration_differsDuringAndAfterWrite() {
+        long before = cache.writeGeneration();
+
+        long during = cache.write(1L, cache::writeGeneration);
+
+        assertThat(during).isNotEqualTo(before);
+        assertThat(cache.writeGeneration()).isNotEqualTo(before).isNotEqualTo(during);
+    }
+
+    @Test
+    void create_invalidatesPagesOnly() {
+        cache.getById(1L, id -> dto(id, "kept"));
+        cache.getPage("all", () -> List.of(dto(1L, "kept")));
+
+        cache.write(null, () -> dto(2L, "created"));
+
+        assertThat(cache.getById(1L, id -> dto(id, "reloaded")).getTitle()).isEqualTo("kept");
+        assertThat(cache.<List<ProductDto>>getPage("all", List::of)).isEmpty();
+    }
+
+    @Test
+    void getByIds_loadsOnlyMisses_inOneCall_andSkipsCacheForIdsBeingWritten() {
+        cache.getById(1L, id -> dto(id, "cached"));
+        List<Set<Long>> calls = new ArrayList<>();
+        Function<Set<Long>, Map<Long, ProductDto>> loader = missing -> {
+            calls.add(missing);
+            return missing.stream().filter(id -> id != 3L).collect(Collectors.toMap(id -> id, id -> dto(id, "loaded")));
+        };
+
+        Map<Long, ProductDto> found = cache.getByIds(List.of(1L, 2L, 3L), loader);
+
+        assertThat(found.get(1L).getTitle()).isEqualTo("cached");
+        assertThat(found.get(2L).getTitle()).isEqualTo("loaded");
+        assertThat(found).doesNotContainKey(3L);
+        assertThat(calls).containsExactly(Set.of(2L, 3L));
+
+        cache.write(2L, () -> {
+            calls.clear();
+            cache.getByIds(List.of(1L, 2L), loader);
+            return null;
+        });
+        assertThat(calls).containsExactly(Set.of(2L));
+    }
+
+    private static ProductDto dto(Long id, String title) {
+        return ProductDto.builder().id(id).title(title).build();
+    }
+}
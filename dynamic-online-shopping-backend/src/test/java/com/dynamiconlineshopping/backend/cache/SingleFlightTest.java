@@ -0,0 +1,109 @@
+package com.dynamiconlineshopping.backend.cache;
+
+import com.dynamiconlineshopping.backend.exception.ResourceNotFoundException;
+import com.dynamiconlineshopping.backend.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SingleFlight singleFlight = new SingleFlight(registry);
+    private final ExecutorService pool = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallers_shareOneLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        Future<String> leader = pool.submit(() -> singleFlight.execute("product", 1L, Duration.ofSeconds(5), () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return "value";
+        }));
+        loading.await(5, TimeUnit.SECONDS);
+
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            followers.add(pool.submit(() -> singleFlight.execute("product", 1L, Duration.ofSeconds(5), () -> {
+                loads.incrementAndGet();
+                return "own";
+            })));
+        }
+        // followers register before the leader is released
+        while (calls("product", "collapsed") < 5) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+        for (Future<String> follower : followers) {
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+        }
+        assertThat(loads).hasValue(1);
+
+        // nothing is kept once the flight lands
+        assertThat(singleFlight.execute("product", 1L, Duration.ofSeconds(1), () -> "next")).isEqualTo("next");
+    }
+
+    @Test
+    void waiters_timeOut_andSeeLeaderFailures() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Object> leader = pool.submit(() -> singleFlight.execute("stats", "all", Duration.ofSeconds(5), () -> {
+            loading.countDown();
+            await(release);
+            throw new ResourceNotFoundException("gone");
+        }));
+        loading.await(5, TimeUnit.SECONDS);
+
+        assertThatThrownBy(() -> singleFlight.execute("stats", "all", Duration.ofMillis(20), () -> "own"))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThat(calls("stats", "timeout")).isEqualTo(1.0);
+
+        Future<Object> follower = pool.submit(() -> singleFlight.execute("stats", "all", Duration.ofSeconds(5), () -> "own"));
+        while (calls("stats", "collapsed") < 2) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // the counter only exists once the first call with that result has been made
+    private double calls(String name, String result) {
+        Counter counter = registry.find("singleflight.calls").tag("name", name).tag("result", result).counter();
+        return counter != null ? counter.count() : 0;
+    }
+}
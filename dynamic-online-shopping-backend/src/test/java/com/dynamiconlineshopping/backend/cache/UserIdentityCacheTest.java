@@ -0,0 +1,66 @@
+package com.dynamiconlineshopping.backend.cache;
+
+import com.dynamiconlineshopping.backend.entity.User;
+import com.dynamiconlineshopping.backend.enums.Role;
+import com.dynamiconlineshopping.backend.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserIdentityCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry registry;
+    private UserIdentityCache cache;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        cache = new UserIdentityCache(userRepository, registry, 100, 60);
+    }
+
+    @Test
+    void findByEmail_hitsRepositoryOnlyOnce() {
+        User user = User.builder().id(1L).email("a@a.com").password("pw").role(Role.CUSTOMER).build();
+        when(userRepository.findByEmail("a@a.com")).thenReturn(Optional.of(user));
+
+        assertThat(cache.findByEmail("a@a.com")).map(UserIdentity::getId).contains(1L);
+        assertThat(cache.findByEmail("a@a.com")).map(UserIdentity::getRole).contains(Role.CUSTOMER);
+
+        verify(userRepository, times(1)).findByEmail("a@a.com");
+        assertThat(registry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void findByEmail_doesNotCacheMisses() {
+        when(userRepository.findByEmail("new@a.com")).thenReturn(Optional.empty());
+
+        assertThat(cache.findByEmail("new@a.com")).isEmpty();
+        assertThat(cache.findByEmail("new@a.com")).isEmpty();
+
+        verify(userRepository, times(2)).findByEmail("new@a.com");
+    }
+
+    @Test
+    void invalidate_forcesReload() {
+        User before = User.builder().id(1L).email("a@a.com").role(Role.CUSTOMER).build();
+        User after = User.builder().id(1L).email("a@a.com").role(Role.ADMIN).build();
+        when(userRepository.findByEmail("a@a.com")).thenReturn(Optional.of(before), Optional.of(after));
+
+        cache.findByEmail("a@a.com");
+        cache.invalidate("a@a.com");
+
+        assertThat(cache.findByEmail("a@a.com")).map(UserIdentity::getRole).contains(Role.ADMIN);
+    }
+}
@@ -0,0 +1,33 @@
+package com.dynamiconlineshopping.backend.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CalibratedBCryptPasswordEncoderTest {
+
+    private final CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(5);
+
+    @Test
+    void upgradeEncoding_whenCostDiffersInEitherDirection() {
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("pw"))).isTrue();
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("pw"))).isTrue();
+        assertThat(encoder.upgradeEncoding(encoder.encode("pw"))).isFalse();
+        assertThat(encoder.upgradeEncoding("not-a-bcrypt-hash")).isFalse();
+    }
+
+    @Test
+    void matches_acceptsHashesOfOtherCosts() {
+        assertThat(encoder.matches("pw", new BCryptPasswordEncoder(4).encode("pw"))).isTrue();
+    }
+
+    @Test
+    void calibrate_staysWithinBounds() {
+        int[] result = BCryptCalibration.calibrate(0, 4, 6);
+        assertThat(result[0]).isEqualTo(4);
+
+        int[] capped = BCryptCalibration.calibrate(Long.MAX_VALUE / 4, 4, 5);
+        assertThat(capped[0]).isEqualTo(5);
+    }
+}
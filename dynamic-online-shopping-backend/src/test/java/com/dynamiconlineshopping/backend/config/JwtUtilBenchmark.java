@@ -0,0 +1,62 @@
+package com.dynamiconlineshopping.backend.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtUtilBenchmark - per-token verification cost: legacy JwtUtil (decode key + build parser per call)
+ * vs the JwtKeyRing shared parser.
+ *
+ * Run with: mvn test-compile exec:java
+ *           -Dexec.mainClass=com.dynamiconlineshopping.backend.config.JwtUtilBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET = "YkYxZzVObnliV05yWlRsa1pYSmhibk52TG1OdmJuTnpjMlZ5Wlc1MA==";
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(new JwtKeyRing(SECRET, "k1", ""));
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMs", 3_600_000L);
+        token = jwtUtil.generateToken("bench@shop.com", "CUSTOMER", 1L);
+    }
+
+    // What JwtUtil.extractAllClaims did before the key ring
+    @Benchmark
+    public Claims legacyParsePerCall() {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    @Benchmark
+    public Claims keyRingSharedParser() {
+        return jwtUtil.extractAllClaims(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtUtilBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,66 @@
+package com.dynamiconlineshopping.backend.config;
+
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private static final String OLD_SECRET = "YkYxZzVObnliV05yWlRsa1pYSmhibk52TG1OdmJuTnpjMlZ5Wlc1MA==";
+    private static final String NEW_SECRET = "c2Vjb25kLXNlY3JldC1mb3Ita2V5LXJvdGF0aW9uLXRlc3RzLTEyMzQ1Ng==";
+
+    private JwtUtil jwtUtil(JwtKeyRing ring) {
+        JwtUtil util = new JwtUtil(ring);
+        ReflectionTestUtils.setField(util, "jwtExpirationMs", 60_000L);
+        return util;
+    }
+
+    @Test
+    void generateToken_roundTripsClaims() {
+        JwtUtil util = jwtUtil(new JwtKeyRing(OLD_SECRET, "k1", ""));
+
+        String token = util.generateToken("a@a.com", "ADMIN", 7L);
+
+        assertThat(util.extractUsername(token)).isEqualTo("a@a.com");
+        assertThat(util.extractRole(token)).isEqualTo("ADMIN");
+        assertThat(util.extractUserId(token)).isEqualTo(7L);
+        assertThat(util.validateToken(token)).isTrue();
+    }
+
+    @Test
+    void generateToken_carriesMillisecondIssueTime() {
+        JwtUtil util = jwtUtil(new JwtKeyRing(OLD_SECRET, "k1", ""));
+        long before = System.currentTimeMillis();
+
+        Long issuedAtMs = util.extractAllClaims(util.generateToken("a@a.com", "ADMIN", 7L))
+                .get(JwtUtil.ISSUED_AT_MS_CLAIM, Long.class);
+
+        assertThat(issuedAtMs).isBetween(before, System.currentTimeMillis());
+    }
+
+    @Test
+    void rotatedKey_stillVerifiesUntilRetired() {
+        String oldToken = jwtUtil(new JwtKeyRing(OLD_SECRET, "k1", "")).generateToken("a@a.com", "CUSTOMER", 1L);
+
+        String retireLater = Instant.now().plus(1, ChronoUnit.HOURS).toString();
+        JwtUtil rotated = jwtUtil(new JwtKeyRing(NEW_SECRET, "k2", "k1:" + OLD_SECRET + ":" + retireLater));
+        assertThat(rotated.extractUsername(oldToken)).isEqualTo("a@a.com");
+
+        String retiredAlready = Instant.now().minus(1, ChronoUnit.MINUTES).toString();
+        JwtUtil afterRetirement = jwtUtil(new JwtKeyRing(NEW_SECRET, "k2", "k1:" + OLD_SECRET + ":" + retiredAlready));
+        assertThatThrownBy(() -> afterRetirement.extractAllClaims(oldToken)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void unknownKid_isRejected() {
+        String token = jwtUtil(new JwtKeyRing(OLD_SECRET, "other", "")).generateToken("a@a.com", "CUSTOMER", 1L);
+        JwtUtil util = jwtUtil(new JwtKeyRing(OLD_SECRET, "k1", ""));
+
+        assertThat(util.validateToken(token)).isFalse();
+    }
+}
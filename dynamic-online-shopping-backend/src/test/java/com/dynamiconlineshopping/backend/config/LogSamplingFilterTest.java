@@ -0,0 +1,51 @@
+package com.dynamiconlineshopping.backend.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LogSamplingFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final Logger jwtLogger = context.getLogger("com.shop.config.JwtAuthFilter");
+    private final Logger otherLogger = context.getLogger("com.shop.service.OrderService");
+
+    @Test
+    void rateZero_dropsInfoButNeverWarn() {
+        LogSamplingFilter filter = new LogSamplingFilter("com.shop.config=0");
+
+        assertThat(filter.decide(null, jwtLogger, Level.INFO, "msg", null, null)).isEqualTo(FilterReply.DENY);
+        assertThat(filter.decide(null, jwtLogger, Level.WARN, "msg", null, null)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(filter.decide(null, otherLogger, Level.INFO, "msg", null, null)).isEqualTo(FilterReply.NEUTRAL);
+    }
+
+    @Test
+    void enabledChecks_areNotSampled() {
+        LogSamplingFilter filter = new LogSamplingFilter("com.shop=0");
+
+        assertThat(filter.decide(null, jwtLogger, Level.DEBUG, null, null, null)).isEqualTo(FilterReply.NEUTRAL);
+    }
+
+    @Test
+    void setRate_takesEffectImmediately() {
+        LogSamplingFilter filter = new LogSamplingFilter("");
+        assertThat(filter.decide(null, jwtLogger, Level.INFO, "msg", null, null)).isEqualTo(FilterReply.NEUTRAL);
+
+        filter.setRate("com.shop.config.JwtAuthFilter", 0.0);
+        assertThat(filter.decide(null, jwtLogger, Level.INFO, "msg", null, null)).isEqualTo(FilterReply.DENY);
+
+        filter.setRate("com.shop.config.JwtAuthFilter", null);
+        assertThat(filter.decide(null, jwtLogger, Level.INFO, "msg", null, null)).isEqualTo(FilterReply.NEUTRAL);
+    }
+
+    @Test
+    void parse_rejectsMalformedEntries() {
+        assertThatThrownBy(() -> LogSamplingFilter.parse("com.shop"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
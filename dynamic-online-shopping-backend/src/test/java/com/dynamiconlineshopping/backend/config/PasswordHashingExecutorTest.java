@@ -0,0 +1,59 @@
+package com.dynamiconlineshopping.backend.config;
+
+import com.dynamiconlineshopping.backend.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PasswordHashingExecutorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PasswordHashingExecutor executor = new PasswordHashingExecutor(registry, 1, 1, 5000, 3);
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void execute_runsTaskOnPoolAndRecordsLatency() {
+        String result = executor.execute(() -> Thread.currentThread().getName());
+
+        assertThat(result).startsWith("password-hash-");
+        assertThat(registry.get("auth.hashing.duration").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void execute_whenSaturated_rejectsWithRetryAfter() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // one task occupies the single thread, a second fills the queue
+        callers.submit(() -> executor.execute(() -> {
+            running.countDown();
+            release.await();
+            return null;
+        }));
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        callers.submit(() -> executor.execute(() -> null));
+        while (registry.get("auth.hashing.queue.depth").gauge().value() < 1) {
+            Thread.sleep(5);
+        }
+
+        assertThatThrownBy(() -> executor.execute(() -> null))
+                .isInstanceOf(TooManyRequestsException.class)
+                .extracting("retryAfterSeconds").isEqualTo(3L);
+        assertThat(registry.get("auth.hashing.rejected").counter().count()).isEqualTo(1.0);
+
+        release.countDown();
+    }
+}
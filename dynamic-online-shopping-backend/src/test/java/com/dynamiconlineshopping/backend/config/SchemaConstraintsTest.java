@@ -0,0 +1,63 @@
+package com.dynamiconlineshopping.backend.config;
+
+import com.dynamiconlineshopping.backend.entity.Product;
+import com.dynamiconlineshopping.backend.entity.User;
+import com.dynamiconlineshopping.backend.repository.ProductRepository;
+import com.dynamiconlineshopping.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Starts from a database that predates the unique indexes and already holds rows violating them
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Import(SchemaConstraints.class)
+class SchemaConstraintsTest {
+
+    @Autowired
+    private SchemaConstraints schemaConstraints;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void run_repairsDuplicates_thenEnforcesIndexes() {
+        // Hibernate may have created either a constraint or a plain unique index for each
+        jdbcTemplate.execute("alter table cart_items drop constraint if exists uk_cart_items_user_product");
+        jdbcTemplate.execute("drop index if exists uk_cart_items_user_product");
+        jdbcTemplate.execute("alter table products drop constraint if exists uk_products_sku");
+        jdbcTemplate.execute("drop index if exists uk_products_sku");
+
+        User user = userRepository.save(User.builder().email("dup@shop.test").password("x").fullName("Dup").build());
+        Product phone = productRepository.saveAndFlush(Product.builder().title("Phone").sku("SKU1").build());
+        Product copy = productRepository.saveAndFlush(Product.builder().title("Copy").sku("SKU1").build());
+        productRepository.saveAndFlush(Product.builder().title("Blank 1").sku("").build());
+        productRepository.saveAndFlush(Product.builder().title("Blank 2").sku(" ").build());
+        for (int quantity : new int[]{1, 2, 4}) {
+            jdbcTemplate.update("insert into cart_items (user_id, product_id, quantity) values (?, ?, ?)",
+                    user.getId(), phone.getId(), quantity);
+        }
+
+        schemaConstraints.run();
+
+        List<Integer> lines = jdbcTemplate.queryForList(
+                "select quantity from cart_items where user_id = ? and product_id = ?", Integer.class, user.getId(), phone.getId());
+        assertThat(lines).containsExactly(7);
+        assertThat(jdbcTemplate.queryForObject("select sku from products where id = ?", String.class, copy.getId()))
+                .isEqualTo("SKU1-" + copy.getId());
+        assertThat(jdbcTemplate.queryForObject("select count(*) from products where sku is null", Long.class)).isEqualTo(2L);
+
+        assertThatThrownBy(() -> jdbcTemplate.update("insert into cart_items (user_id, product_id, quantity) values (?, ?, 1)",
+                user.getId(), phone.getId())).isInstanceOf(DataIntegrityViolationException.class);
+    }
+}
@@ -0,0 +1,88 @@
+package com.dynamiconlineshopping.backend.config;
+
+import com.dynamiconlineshopping.backend.entity.RevokedToken;
+import com.dynamiconlineshopping.backend.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationListTest {
+
+    private final RevokedTokenRepository repository = mock(RevokedTokenRepository.class);
+    private final TokenRevocationList revocationList = new TokenRevocationList(repository, 60_000, 1 << 12, 10_000);
+
+    @Test
+    void revokeToken_isSeenWithoutQueryingRepository() {
+        revocationList.revokeToken("jti-1", Instant.now().plusSeconds(60));
+
+        assertThat(revocationList.isRevoked("jti-1", 1L, System.currentTimeMillis())).isTrue();
+        assertThat(revocationList.isRevoked("jti-2", 1L, System.currentTimeMillis())).isFalse();
+        verify(repository).save(any(RevokedToken.class));
+        verify(repository, never()).findByRevokedAtAfterAndExpiresAtAfter(any(), any());
+    }
+
+    @Test
+    void revokeUser_onlyAffectsTokensIssuedBefore() {
+        long before = System.currentTimeMillis() - 5_000;
+        revocationList.revokeUser(7L);
+
+        assertThat(revocationList.isRevoked("any", 7L, before)).isTrue();
+        assertThat(revocationList.isRevoked("any", 7L, System.currentTimeMillis() + 5_000)).isFalse();
+        assertThat(revocationList.isRevoked("any", 8L, before)).isFalse();
+    }
+
+    @Test
+    void revokeUser_doesNotRejectTokenIssuedLaterInTheSameSecond() throws InterruptedException {
+        revocationList.revokeUser(7L);
+        Thread.sleep(2);
+
+        assertThat(revocationList.isRevoked("any", 7L, System.currentTimeMillis())).isFalse();
+    }
+
+    @Test
+    void sync_loadsRowsWrittenElsewhere() {
+        RevokedToken row = RevokedToken.builder()
+                .id(3L).tokenId("remote").revokedAt(Instant.now()).expiresAt(Instant.now().plusSeconds(60)).build();
+        when(repository.findByRevokedAtAfterAndExpiresAtAfter(eq(Instant.EPOCH), any())).thenReturn(List.of(row));
+
+        revocationList.sync();
+
+        assertThat(revocationList.isRevoked("remote", null, 0L)).isTrue();
+    }
+
+    @Test
+    void sync_rereadsOverlapWindow_soLateCommittedRowsAreNotSkipped() {
+        revocationList.sync();
+        Instant afterFirstSync = Instant.now();
+
+        // Lower id than anything seen before, committed after the first poll
+        RevokedToken late = RevokedToken.builder()
+                .id(1L).tokenId("late").revokedAt(afterFirstSync.minusSeconds(5)).expiresAt(afterFirstSync.plusSeconds(60)).build();
+        ArgumentCaptor<Instant> since = ArgumentCaptor.forClass(Instant.class);
+        when(repository.findByRevokedAtAfterAndExpiresAtAfter(since.capture(), any())).thenReturn(List.of(late));
+
+        revocationList.sync();
+
+        assertThat(since.getValue()).isBefore(late.getRevokedAt());
+        assertThat(revocationList.isRevoked("late", null, 0L)).isTrue();
+    }
+
+    @Test
+    void purgeExpired_dropsEntriesPastTheirExpiry() {
+        RevokedToken row = RevokedToken.builder()
+                .id(4L).tokenId("stale").revokedAt(Instant.now()).expiresAt(Instant.now().minusSeconds(1)).build();
+        when(repository.findByRevokedAtAfterAndExpiresAtAfter(eq(Instant.EPOCH), any())).thenReturn(List.of(row));
+        revocationList.sync();
+
+        revocationList.purgeExpired();
+
+        assertThat(revocationList.isRevoked("stale", null, 0L)).isFalse();
+        verify(repository).deleteExpired(any());
+    }
+}
@@ -0,0 +1,35 @@
+package com.dynamiconlineshopping.backend.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTest {
+
+    private final VerifiedTokenCache cache = new VerifiedTokenCache(100);
+
+    @Test
+    void get_returnsCachedClaims_forSameToken() {
+        long expiresAt = System.currentTimeMillis() + 60_000;
+        cache.put("token-a", new VerifiedTokenCache.VerifiedToken("jti-1", 1L, "a@a.com", "CUSTOMER", 0L, expiresAt));
+
+        VerifiedTokenCache.VerifiedToken hit = cache.get("token-a");
+        assertThat(hit).isNotNull();
+        assertThat(hit.getUsername()).isEqualTo("a@a.com");
+        assertThat(hit.getRole()).isEqualTo("CUSTOMER");
+        assertThat(cache.get("token-b")).isNull();
+    }
+
+    @Test
+    void put_ignoresAlreadyExpiredTokens() {
+        cache.put("old", new VerifiedTokenCache.VerifiedToken("jti-1", 1L, "a@a.com", "CUSTOMER", 0L, System.currentTimeMillis() - 1));
+        assertThat(cache.get("old")).isNull();
+    }
+
+    @Test
+    void invalidateAll_clearsEntries() {
+        cache.put("token-a", new VerifiedTokenCache.VerifiedToken("jti-1", 1L, "a@a.com", "ADMIN", 0L, System.currentTimeMillis() + 60_000));
+        cache.invalidateAll();
+        assertThat(cache.get("token-a")).isNull();
+    }
+}
@@ -1,6 +1,8 @@
 package com.dynamiconlineshopping.backend.controller;
 
 import com.dynamiconlineshopping.backend.dto.CartItemDto;
+import com.dynamiconlineshopping.backend.dto.CartOperation;
+import com.dynamiconlineshopping.backend.enums.CartOperationType;
 import com.dynamiconlineshopping.backend.service.CartService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -50,6 +52,21 @@ class CartControllerTest {
                 .andExpect(status().isCreated());
     }
 
+    @Test
+    void testApplyOperations() throws Exception {
+        List<CartOperation> ops = List.of(
+                CartOperation.builder().op(CartOperationType.SET).productId(1L).quantity(2).build(),
+                CartOperation.builder().op(CartOperationType.REMOVE).productId(2L).build());
+        Mockito.when(cartService.applyOperations(any()))
+                .thenReturn(List.of(CartItemDto.builder().productId(1L).quantity(2).build()));
+
+        mockMvc.perform(patch("/api/cart")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ops)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].quantity").value(2));
+    }
+
     @Test
     void testUpdateCartItem() throws Exception {
         CartItemDto dto = new CartItemDto();
@@ -0,0 +1,64 @@
+package com.dynamiconlineshopping.backend.controller;
+
+import com.dynamiconlineshopping.backend.config.JwtAuthFilter;
+import com.dynamiconlineshopping.backend.config.JwtUtil;
+import com.dynamiconlineshopping.backend.dto.CategoryDto;
+import com.dynamiconlineshopping.backend.dto.ProductDto;
+import com.dynamiconlineshopping.backend.dto.ProductPage;
+import com.dynamiconlineshopping.backend.service.CategoryService;
+import com.dynamiconlineshopping.backend.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(CategoryController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class CategoryControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CategoryService categoryService;
+
+    @MockBean
+    private ProductService productService;
+
+    // Security filter collaborators, so the slice context loads
+    @MockBean
+    private JwtAuthFilter jwtAuthFilter;
+
+    @MockBean
+    private JwtUtil jwtUtil;
+
+    @Test
+    void testGetTree() throws Exception {
+        CategoryDto phones = CategoryDto.builder().id(4L).name("Phones").parentId(1L).productCount(2).children(List.of()).build();
+        Mockito.when(categoryService.getTree()).thenReturn(List.of(
+                CategoryDto.builder().id(1L).name("Electronics").productCount(2).children(List.of(phones)).build()));
+
+        mockMvc.perform(get("/api/categories"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].children[0].name").value("Phones"))
+                .andExpect(jsonPath("$[0].productCount").value(2));
+    }
+
+    @Test
+    void testGetCategoryProducts() throws Exception {
+        ProductPage page = ProductPage.builder().items(List.of(ProductDto.builder().id(9L).build())).limit(20).build();
+        Mockito.when(productService.getByCategory(1L, null, null)).thenReturn(page);
+
+        mockMvc.perform(get("/api/categories/1/products"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(9));
+    }
+}
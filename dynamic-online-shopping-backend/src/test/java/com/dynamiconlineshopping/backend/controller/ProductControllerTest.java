@@ -1,24 +1,39 @@
 package com.dynamiconlineshopping.backend.controller;
 
+import com.dynamiconlineshopping.backend.cache.CatalogSnapshot;
+import com.dynamiconlineshopping.backend.config.JwtAuthFilter;
+import com.dynamiconlineshopping.backend.config.JwtUtil;
+import com.dynamiconlineshopping.backend.dto.ProductBatch;
 import com.dynamiconlineshopping.backend.dto.ProductDto;
+import com.dynamiconlineshopping.backend.dto.ProductPage;
+import com.dynamiconlineshopping.backend.dto.ProductPageRequest;
+import com.dynamiconlineshopping.backend.dto.ProductSearchPage;
+import com.dynamiconlineshopping.backend.dto.ProductSuggestion;
+import com.dynamiconlineshopping.backend.dto.ProductVersion;
+import com.dynamiconlineshopping.backend.enums.ProductSort;
 import com.dynamiconlineshopping.backend.service.ProductService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ProductController.class)
+@AutoConfigureMockMvc(addFilters = false)
 class ProductControllerTest {
 
     @Autowired
@@ -27,6 +42,13 @@ class ProductControllerTest {
     @MockBean
     private ProductService productService;
 
+    // Security filter collaborators, so the slice context loads
+    @MockBean
+    private JwtAuthFilter jwtAuthFilter;
+
+    @MockBean
+    private JwtUtil jwtUtil;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -38,6 +60,84 @@ class ProductControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void testGetAllProducts_servesSnapshotBytes_byAcceptEncoding() throws Exception {
+        byte[] json = "[{\"id\":1}]".getBytes(StandardCharsets.UTF_8);
+        byte[] gzip = {31, -117, 8};
+        Mockito.when(productService.getCatalogSnapshot()).thenReturn(new CatalogSnapshot.Rendered(1L, "\"l1-abc\"", json, gzip));
+
+        mockMvc.perform(get("/api/products"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"l1-abc\""))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(jsonPath("$[0].id").value(1));
+
+        mockMvc.perform(get("/api/products").header("Accept-Encoding", "br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("ETag", "\"l1-abc-gz\""))
+                .andExpect(content().bytes(gzip));
+
+        mockMvc.perform(get("/api/products").header("If-None-Match", "\"l1-abc\""))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/products").header("If-None-Match", "\"l1-abc-gz\"").header("Accept-Encoding", "gzip"))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"l1-abc-gz\""));
+        Mockito.verify(productService, Mockito.never()).getAll();
+    }
+
+    @Test
+    void testAcceptsGzip() {
+        assertThat(ProductController.acceptsGzip("gzip, deflate")).isTrue();
+        assertThat(ProductController.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(ProductController.acceptsGzip("identity")).isFalse();
+    }
+
+    @Test
+    void testBatchLookup() throws Exception {
+        ProductBatch batch = ProductBatch.builder()
+                .items(List.of(ProductDto.builder().id(3L).build()))
+                .missingIds(List.of(4L))
+                .missingSkus(List.of())
+                .build();
+        Mockito.when(productService.getBatch(List.of(3L, 4L), null)).thenReturn(batch);
+
+        mockMvc.perform(get("/api/products").param("ids", "3,4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(3))
+                .andExpect(jsonPath("$.missingIds[0]").value(4));
+    }
+
+    @Test
+    void testGetProductsPage() throws Exception {
+        ProductPage page = ProductPage.builder().items(List.of(new ProductDto())).nextCursor("abc").limit(1).build();
+        Mockito.when(productService.getPage(any(ProductPageRequest.class))).thenReturn(page);
+
+        mockMvc.perform(get("/api/products").param("sort", "price_desc").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value("abc"));
+        Mockito.verify(productService).getPage(Mockito.argThat(r -> r.getSort() == ProductSort.PRICE_DESC && r.getLimit() == 1));
+    }
+
+    @Test
+    void testSearchProducts() throws Exception {
+        ProductSearchPage page = ProductSearchPage.builder().items(List.of(new ProductDto())).total(1).page(0).size(20).build();
+        Mockito.when(productService.search("mouse", 0, 20)).thenReturn(page);
+
+        mockMvc.perform(get("/api/products/search").param("q", "mouse"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1));
+    }
+
+    @Test
+    void testSuggestProducts() throws Exception {
+        Mockito.when(productService.suggest("mou", 8)).thenReturn(List.of(new ProductSuggestion(1L, "Mouse", "MOU-1")));
+
+        mockMvc.perform(get("/api/products/suggest").param("q", "mou"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Mouse"));
+    }
+
     @Test
     void testGetProductById() throws Exception {
         ProductDto dto = new ProductDto();
@@ -47,6 +147,45 @@ class ProductControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void testGetProductById_sendsValidators_andRevalidatesWithoutLoading() throws Exception {
+        Instant updatedAt = Instant.parse("2025-01-01T00:00:00Z");
+        ProductDto dto = ProductDto.builder().id(1L).title("Phone").version(4L).updatedAt(updatedAt).build();
+        Mockito.when(productService.getById(1L)).thenReturn(dto);
+        Mockito.when(productService.getVersion(1L)).thenReturn(new ProductVersion(1L, 4L, updatedAt));
+
+        mockMvc.perform(get("/api/products/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"p1-v4\""))
+                .andExpect(header().exists("Last-Modified"));
+
+        Mockito.clearInvocations(productService);
+        mockMvc.perform(get("/api/products/1").header("If-None-Match", "\"p1-v4\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        Mockito.verify(productService, Mockito.never()).getById(1L);
+
+        mockMvc.perform(get("/api/products/1").header("If-None-Match", "\"p1-v3\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Phone"));
+    }
+
+    @Test
+    void testGetAllProducts_notModifiedWhenListUnchanged() throws Exception {
+        Mockito.when(productService.getAll()).thenReturn(List.of(ProductDto.builder().id(1L).version(0L).build()));
+
+        String tag = mockMvc.perform(get("/api/products"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/products").header("If-None-Match", "W/" + tag))
+                .andExpect(status().isNotModified());
+
+        Mockito.when(productService.getAll()).thenReturn(List.of(ProductDto.builder().id(1L).version(1L).build()));
+        mockMvc.perform(get("/api/products").header("If-None-Match", tag))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void testCreateProduct() throws Exception {
         ProductDto dto = new ProductDto();
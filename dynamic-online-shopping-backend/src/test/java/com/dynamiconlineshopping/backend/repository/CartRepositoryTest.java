@@ -3,6 +3,9 @@ package com.dynamiconlineshopping.backend.repository;
 import com.dynamiconlineshopping.backend.entity.CartItem;
 import com.dynamiconlineshopping.backend.entity.Product;
 import com.dynamiconlineshopping.backend.entity.User;
+import com.dynamiconlineshopping.backend.enums.Role;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
@@ -11,22 +14,28 @@ import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.sql.init.mode=never")
 class CartRepositoryTest {
 
     @Autowired
     private CartRepository cartRepository;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private EntityManager entityManager;
 
     @Test
     void testFindByUser() {
         User user = new User();
         user.setEmail("aaa@gmail.com");
+        user.setPassword("secret");
         userRepository.save(user);
 
         CartItem item = new CartItem();
         item.setUser(user);
+        item.setProduct(productRepository.save(Product.builder().title("Pen").build()));
         cartRepository.save(item);
 
         List<CartItem> cartItems = cartRepository.findByUser(user);
@@ -37,6 +46,7 @@ class CartRepositoryTest {
     void testDeleteByUserAndProductId() {
         User user = new User();
         user.setEmail("bbb@gmail.com");
+        user.setPassword("secret");
         userRepository.save(user);
 
         CartItem item = new CartItem();
@@ -45,11 +55,25 @@ class CartRepositoryTest {
         Product product = new Product();
         product.setTitle("Book");
 
-        item.setProduct(product);
+        item.setProduct(productRepository.save(product));
         cartRepository.save(item);
 
-        cartRepository.deleteByUserAndProductId(user, item.getId());
+        cartRepository.deleteByUserAndProductId(user, product.getId());
         List<CartItem> cartItems = cartRepository.findByUser(user);
         assertThat(cartItems).isEmpty();
     }
+
+    @Test
+    void testFindByUser_fetchesProductWithItems() {
+        User user = userRepository.save(User.builder().email("ccc@gmail.com").password("secret").role(Role.USER).build());
+        Product product = productRepository.save(Product.builder().title("Lamp").build());
+        cartRepository.save(CartItem.builder().user(user).product(product).quantity(1).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        List<CartItem> cartItems = cartRepository.findByUser(userRepository.getReferenceById(user.getId()));
+        assertThat(cartItems).hasSize(1);
+        assertThat(Hibernate.isInitialized(cartItems.get(0).getProduct())).isTrue();
+        assertThat(Hibernate.isInitialized(cartItems.get(0).getUser())).isFalse();
+    }
 }
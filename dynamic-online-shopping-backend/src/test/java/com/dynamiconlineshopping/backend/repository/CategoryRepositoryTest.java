@@ -0,0 +1,64 @@
+package com.dynamiconlineshopping.backend.repository;
+
+import com.dynamiconlineshopping.backend.entity.Category;
+import com.dynamiconlineshopping.backend.entity.Product;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+class CategoryRepositoryTest {
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void testSubtreeByPath_andRelativeCountUpdate() {
+        Category root = save("Electronics", null);
+        Category phones = save("Phones", root);
+        Category books = save("Books", null);
+
+        assertThat(categoryRepository.findSubtreeIds(root.getPath())).containsExactlyInAnyOrder(root.getId(), phones.getId());
+
+        categoryRepository.adjustProductCount(List.of(root.getId(), phones.getId()), 1);
+        categoryRepository.adjustProductCount(List.of(phones.getId()), 1);
+        entityManager.clear();
+
+        assertThat(categoryRepository.findById(root.getId()).orElseThrow().getProductCount()).isEqualTo(1);
+        assertThat(categoryRepository.findById(phones.getId()).orElseThrow().getProductCount()).isEqualTo(2);
+        assertThat(categoryRepository.findById(books.getId()).orElseThrow().getProductCount()).isZero();
+    }
+
+    @Test
+    void testProductSliceByCategory() {
+        Category phones = save("Phones", null);
+        Category books = save("Books", null);
+        Product a = productRepository.save(Product.builder().title("A").category(phones).build());
+        productRepository.save(Product.builder().title("B").category(books).build());
+        Product c = productRepository.save(Product.builder().title("C").category(phones).build());
+
+        assertThat(productRepository.findSliceByCategoryIn(List.of(phones.getId()), 0L, PageRequest.ofSize(10)))
+                .extracting(Product::getId).containsExactly(a.getId(), c.getId());
+        assertThat(productRepository.findSliceByCategoryIn(List.of(phones.getId()), a.getId(), PageRequest.ofSize(10)))
+                .extracting(Product::getId).containsExactly(c.getId());
+    }
+
+    private Category save(String name, Category parent) {
+        Category category = categoryRepository.save(Category.builder().name(name).parent(parent)
+                .depth(parent != null ? parent.getDepth() + 1 : 0).build());
+        category.setPath((parent != null ? parent.getPath() : "/") + category.getId() + "/");
+        return categoryRepository.saveAndFlush(category);
+    }
+}
@@ -3,6 +3,9 @@ package com.dynamiconlineshopping.backend.repository;
 import com.dynamiconlineshopping.backend.entity.Order;
 import com.dynamiconlineshopping.backend.entity.User;
 import com.dynamiconlineshopping.backend.enums.OrderStatus;
+import com.dynamiconlineshopping.backend.enums.Role;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
@@ -13,18 +16,21 @@ import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.sql.init.mode=never")
 class OrderRepositoryTest {
 
     @Autowired
     private OrderRepository orderRepository;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
 
     @Test
     void testFindByUser() {
         User user = new User();
         user.setEmail("test@gmail.com");
+        user.setPassword("secret");
         userRepository.save(user);
 
         Order order = new Order();
@@ -66,4 +72,33 @@ class OrderRepositoryTest {
         List<Order> orders = orderRepository.findTop5ByOrderByCreatedAtDesc();
         assertThat(orders).hasSize(5);
     }
+
+    @Test
+    void testFindAll_joinsUser_whileTop5LeavesItLazy() {
+        User user = userRepository.save(User.builder().email("admin-list@gmail.com").password("secret").role(Role.USER).build());
+        Order order = new Order();
+        order.setUser(user);
+        order.setCreatedAt(Instant.now());
+        orderRepository.save(order);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Order> all = orderRepository.findAll();
+        assertThat(all).hasSize(1);
+        assertThat(Hibernate.isInitialized(all.get(0).getUser())).isTrue();
+
+        entityManager.clear();
+        List<Order> recent = orderRepository.findTop5ByOrderByCreatedAtDesc();
+        assertThat(Hibernate.isInitialized(recent.get(0).getUser())).isFalse();
+    }
+
+    @Test
+    void testSumTotalAmountByStatus() {
+        orderRepository.save(Order.builder().status(OrderStatus.PAID).totalAmount(40.0).build());
+        orderRepository.save(Order.builder().status(OrderStatus.PAID).totalAmount(2.5).build());
+        orderRepository.save(Order.builder().status(OrderStatus.PENDING).totalAmount(100.0).build());
+
+        assertThat(orderRepository.sumTotalAmountByStatus(OrderStatus.PAID)).isEqualTo(42.5);
+        assertThat(orderRepository.sumTotalAmountByStatus(OrderStatus.CANCELLED)).isZero();
+    }
 }
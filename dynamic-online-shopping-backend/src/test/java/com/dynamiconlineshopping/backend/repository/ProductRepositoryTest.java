@@ -1,18 +1,27 @@
 package com.dynamiconlineshopping.backend.repository;
 
 import com.dynamiconlineshopping.backend.entity.Product;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.sql.init.mode=never")
 class ProductRepositoryTest {
 
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     @Test
     void testSaveAndFind() {
         Product p = new Product();
@@ -35,4 +44,58 @@ class ProductRepositoryTest {
 
         assertThat(productRepository.findById(p.getId())).isNotPresent();
     }
+
+    @Test
+    void testVersionBumpsOnUpdate() {
+        Product p = productRepository.saveAndFlush(Product.builder().title("Cable").stock(1).build());
+        assertThat(p.getVersion()).isZero();
+        assertThat(p.getUpdatedAt()).isNotNull();
+
+        p.setStock(2);
+        productRepository.saveAndFlush(p);
+
+        assertThat(productRepository.findVersionById(p.getId()))
+                .hasValueSatisfying(v -> assertThat(v.getVersion()).isEqualTo(1L));
+    }
+
+    @Test
+    void testOverlappingWrite_withStaleVersion_isRejected() {
+        Product stored = productRepository.saveAndFlush(Product.builder().title("Cable").stock(1).build());
+        entityManager.clear();
+        Product first = productRepository.findById(stored.getId()).orElseThrow();
+        entityManager.detach(first);
+        Product second = productRepository.findById(stored.getId()).orElseThrow();
+
+        second.setStock(5);
+        productRepository.saveAndFlush(second);
+
+        first.setTitle("Cable v2");
+        assertThatThrownBy(() -> productRepository.saveAndFlush(first))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+    }
+
+    @Test
+    void testFindBySkuIn() {
+        productRepository.save(Product.builder().title("A").sku("SKU-A").build());
+        productRepository.save(Product.builder().title("B").sku("SKU-B").build());
+
+        assertThat(productRepository.findBySkuIn(List.of("SKU-B", "SKU-X")))
+                .extracting(Product::getTitle).containsExactly("B");
+    }
+
+    @Test
+    void testPriceKeysetSlices() {
+        Product a = productRepository.save(Product.builder().title("A").price(10.0).stock(1).build());
+        Product b = productRepository.save(Product.builder().title("B").price(20.0).stock(0).build());
+        Product c = productRepository.save(Product.builder().title("C").price(20.0).stock(3).build());
+
+        List<Product> first = productRepository.findSliceByPriceAsc(null, 0L, null, null, false, PageRequest.ofSize(2));
+        assertThat(first).extracting(Product::getId).containsExactly(a.getId(), b.getId());
+
+        List<Product> rest = productRepository.findSliceByPriceAsc(20.0, b.getId(), null, null, false, PageRequest.ofSize(2));
+        assertThat(rest).extracting(Product::getId).containsExactly(c.getId());
+
+        List<Product> inStockOver15 = productRepository.findSliceByIdAsc(0L, 15.0, null, true, PageRequest.ofSize(10));
+        assertThat(inStockOver15).extracting(Product::getId).containsExactly(c.getId());
+    }
 }
@@ -0,0 +1,79 @@
+package com.dynamiconlineshopping.backend.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Bm25IndexTest {
+
+    private final Bm25Index index = new Bm25Index();
+
+    @Test
+    void search_ranksTitleMatchesAboveDescriptionOnlyMatches() {
+        index.index(1L, "Wireless Mouse", "Ergonomic mouse with USB receiver", "MOU-001");
+        index.index(2L, "USB Keyboard", "Works great with any wireless mouse", "KEY-002");
+        index.index(3L, "Laptop Stand", "Aluminium stand", "STD-003");
+
+        Bm25Index.Hits hits = index.search("wireless mouse", 0, 10);
+
+        assertThat(hits.total()).isEqualTo(2);
+        assertThat(hits.productIds()).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void search_matchesWholeSku() {
+        index.index(1L, "Wireless Mouse", null, "MOU-001");
+        index.index(2L, "Mouse Pad", null, "PAD-001");
+
+        assertThat(index.search("mou-001", 0, 10).productIds()).startsWith(1L);
+    }
+
+    @Test
+    void updatesAndRemovesAreIncremental() {
+        index.index(1L, "Red Shirt", null, null);
+        index.index(1L, "Blue Shirt", null, null);
+
+        assertThat(index.search("red", 0, 10).total()).isZero();
+        assertThat(index.search("blue", 0, 10).productIds()).containsExactly(1L);
+
+        index.remove(1L);
+        assertThat(index.search("shirt", 0, 10).total()).isZero();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void search_paginatesInRankOrder_andSurvivesCompaction() {
+        for (long id = 1; id <= 3000; id++) {
+            index.index(id, "Cable " + id, id % 2 == 0 ? "cable cable" : "", null);
+        }
+        for (long id = 1; id <= 1500; id++) {
+            index.remove(id);
+        }
+
+        Bm25Index.Hits first = index.search("cable", 0, 5);
+        Bm25Index.Hits second = index.search("cable", 5, 5);
+
+        assertThat(first.total()).isEqualTo(1500);
+        assertThat(first.productIds()).hasSize(5);
+        assertThat(Arrays.stream(first.productIds())).allMatch(id -> id > 1500);
+        assertThat(second.productIds()).hasSize(5).doesNotContain(first.productIds());
+        assertThat(index.search("1501", 0, 1).productIds()).containsExactly(1501L);
+    }
+
+    @Test
+    void search_pagesAreSlicesOfOneRanking() {
+        for (long id = 1; id <= 200; id++) {
+            index.index(id, "Lamp " + id, "lamp ".repeat((int) (id % 7)), null);
+        }
+
+        long[] all = index.search("lamp", 0, 200).productIds();
+        long[] page = index.search("lamp", 40, 20).productIds();
+
+        assertThat(all).hasSize(200);
+        // more description hits rank higher, so the top of the list has id % 7 == 6
+        assertThat(Arrays.stream(all).limit(20)).allMatch(id -> id % 7 == 6);
+        assertThat(page).containsExactly(Arrays.copyOfRange(all, 40, 60));
+    }
+}
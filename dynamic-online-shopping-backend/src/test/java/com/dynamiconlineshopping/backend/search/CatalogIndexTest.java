@@ -0,0 +1,70 @@
+package com.dynamiconlineshopping.backend.search;
+
+import com.dynamiconlineshopping.backend.dto.CatalogFingerprint;
+import com.dynamiconlineshopping.backend.entity.Product;
+import com.dynamiconlineshopping.backend.enums.ProductSort;
+import com.dynamiconlineshopping.backend.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CatalogIndexTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final CatalogIndex index = new CatalogIndex(productRepository, 100, 60_000);
+
+    @BeforeEach
+    void setUp() {
+        when(productRepository.findSliceByIdAsc(eq(0L), any(), any(), anyBoolean(), any()))
+                .thenReturn(List.of(product(1L, 10.0, 0)));
+        index.load();
+    }
+
+    @Test
+    void olderUpdateArrivingLate_isIgnored() {
+        index.onSaved(product(1L, 30.0, 2));
+        index.onSaved(product(1L, 20.0, 1));
+
+        assertThat(index.query(ProductSort.PRICE_ASC, null, 0L, 25.0, null, false, 10).ids()).containsExactly(1L);
+    }
+
+    @Test
+    void saveArrivingAfterDelete_doesNotResurrectProduct() {
+        index.onSaved(product(2L, 5.0, 0));
+        index.onDeleted(2L);
+        index.onSaved(product(2L, 5.0, 1));
+
+        assertThat(index.query(ProductSort.ID_ASC, null, 0L, null, null, false, 10).ids()).containsExactly(1L);
+    }
+
+    @Test
+    void reconcile_onlyReloadsWhenFingerprintDiffers() throws InterruptedException {
+        when(productRepository.fingerprint()).thenReturn(new CatalogFingerprint(1L, Instant.now(), 0L));
+        index.reconcile();
+        verify(productRepository, times(1)).findSliceByIdAsc(anyLong(), any(), any(), anyBoolean(), any());
+
+        // another node added product 3
+        when(productRepository.fingerprint()).thenReturn(new CatalogFingerprint(2L, Instant.now(), 0L));
+        when(productRepository.findSliceByIdAsc(eq(0L), any(), any(), anyBoolean(), any()))
+                .thenReturn(List.of(product(1L, 10.0, 0), product(3L, 15.0, 0)));
+        index.reconcile();
+
+        // the reload runs on a background thread
+        long deadline = System.currentTimeMillis() + 2_000;
+        while (index.query(ProductSort.ID_ASC, null, 0L, null, null, false, 10).ids().length < 2
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(index.query(ProductSort.ID_ASC, null, 0L, null, null, false, 10).ids()).containsExactly(1L, 3L);
+    }
+
+    private static Product product(long id, double price, long version) {
+        return Product.builder().id(id).title("P" + id).price(price).stock(1).version(version).build();
+    }
+}
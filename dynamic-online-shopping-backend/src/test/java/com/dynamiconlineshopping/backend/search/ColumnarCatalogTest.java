@@ -0,0 +1,78 @@
+package com.dynamiconlineshopping.backend.search;
+
+import com.dynamiconlineshopping.backend.enums.ProductSort;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ColumnarCatalogTest {
+
+    private static final long NO_PRICE = ColumnarCatalog.NO_PRICE;
+
+    // id:      1     2         3     4     5
+    // price: 10.00  none    20.00 10.00 30.00
+    // stock:   0     5        2     1     0
+    private final ColumnarCatalog catalog = ColumnarCatalog.of(
+            new long[]{1, 2, 3, 4, 5},
+            new long[]{1000, NO_PRICE, 2000, 1000, 3000},
+            new int[]{0, 5, 2, 1, 0},
+            new long[]{0, 0, 1, 0, 0});
+
+    @Test
+    void idOrders_pageWithFiltersAndReportMore() {
+        ColumnarCatalog.Slice first = catalog.query(ProductSort.ID_ASC, null, 0L, null, null, false, 2);
+        assertThat(first.ids()).containsExactly(1L, 2L);
+        assertThat(first.hasMore()).isTrue();
+
+        ColumnarCatalog.Slice inStock = catalog.query(ProductSort.ID_ASC, null, 2L, null, null, true, 10);
+        assertThat(inStock.ids()).containsExactly(3L, 4L);
+        assertThat(inStock.hasMore()).isFalse();
+
+        // a price filter drops unpriced products, as the database query does
+        assertThat(catalog.query(ProductSort.NEWEST, null, Long.MAX_VALUE, 1500L, null, false, 10).ids())
+                .containsExactly(5L, 3L);
+    }
+
+    @Test
+    void priceOrders_breakTiesById_andSeekPastCursor() {
+        assertThat(catalog.query(ProductSort.PRICE_ASC, null, 0L, null, null, false, 10).ids())
+                .containsExactly(1L, 4L, 3L, 5L);
+        assertThat(catalog.query(ProductSort.PRICE_ASC, 1000L, 1L, null, null, false, 10).ids())
+                .containsExactly(4L, 3L, 5L);
+        assertThat(catalog.query(ProductSort.PRICE_DESC, 1000L, 4L, null, null, false, 10).ids())
+                .containsExactly(1L);
+        assertThat(catalog.query(ProductSort.PRICE_DESC, null, Long.MAX_VALUE, 1000L, 2000L, true, 10).ids())
+                .containsExactly(3L, 4L);
+    }
+
+    @Test
+    void writes_returnNewCatalog_withOrdersMaintained() {
+        ColumnarCatalog updated = catalog
+                .with(6L, 500L, 3, 0)      // new, cheapest
+                .with(3L, NO_PRICE, 2, 2)  // loses its price
+                .with(2L, 2500L, 5, 1)     // gains a price
+                .without(1L);
+
+        assertThat(updated.size()).isEqualTo(5);
+        assertThat(updated.query(ProductSort.PRICE_ASC, null, 0L, null, null, false, 10).ids())
+                .containsExactly(6L, 4L, 2L, 5L);
+        assertThat(updated.query(ProductSort.ID_ASC, null, 0L, null, null, true, 10).ids())
+                .containsExactly(2L, 3L, 4L, 6L);
+        // the original is untouched
+        assertThat(catalog.query(ProductSort.PRICE_ASC, null, 0L, null, null, false, 10).ids())
+                .containsExactly(1L, 4L, 3L, 5L);
+        assertThat(updated.versionSum()).isEqualTo(3L);
+    }
+
+    @Test
+    void olderVersion_isIgnored() {
+        ColumnarCatalog latest = catalog.with(3L, 5000L, 2, 3);
+
+        ColumnarCatalog late = latest.with(3L, 100L, 0, 2);
+
+        assertThat(late).isSameAs(latest);
+        assertThat(late.query(ProductSort.PRICE_DESC, null, Long.MAX_VALUE, null, null, true, 1).ids())
+                .containsExactly(3L);
+        assertThat(late.versionSum()).isEqualTo(3L);
+    }
+}
@@ -0,0 +1,53 @@
+package com.dynamiconlineshopping.backend.search;
+
+import com.dynamiconlineshopping.backend.entity.Product;
+import com.dynamiconlineshopping.backend.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ProductSearchIndexTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final ProductSearchIndex index = new ProductSearchIndex(productRepository, 100);
+
+    @Test
+    void olderSaveArrivingLate_isIgnored() {
+        index.onSaved(product(1L, "Walnut desk", 2));
+        index.onSaved(product(1L, "Oak desk", 1));
+
+        assertThat(index.search("walnut", 0, 10).total()).isEqualTo(1);
+        assertThat(index.search("oak", 0, 10).total()).isZero();
+    }
+
+    @Test
+    void saveArrivingAfterDelete_doesNotResurrectProduct() {
+        index.onSaved(product(2L, "Lamp", 0));
+        index.onDeleted(2L);
+        index.onSaved(product(2L, "Lamp", 0));
+
+        assertThat(index.search("lamp", 0, 10).total()).isZero();
+    }
+
+    @Test
+    void load_keepsSavesMadeMeanwhile_overOlderRows() {
+        index.onSaved(product(1L, "Walnut desk", 3));
+        when(productRepository.findSliceByIdAsc(eq(0L), any(), any(), anyBoolean(), any()))
+                .thenReturn(List.of(product(1L, "Oak desk", 2), product(4L, "Chair", 0)));
+
+        index.load();
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.search("walnut", 0, 10).total()).isEqualTo(1);
+        assertThat(index.search("oak", 0, 10).total()).isZero();
+        assertThat(index.search("chair", 0, 10).total()).isEqualTo(1);
+    }
+
+    private static Product product(long id, String title, long version) {
+        return Product.builder().id(id).title(title).version(version).build();
+    }
+}
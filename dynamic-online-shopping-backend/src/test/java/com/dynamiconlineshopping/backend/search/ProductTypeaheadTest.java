@@ -0,0 +1,62 @@
+package com.dynamiconlineshopping.backend.search;
+
+import com.dynamiconlineshopping.backend.dto.ProductSuggestion;
+import com.dynamiconlineshopping.backend.entity.Product;
+import com.dynamiconlineshopping.backend.repository.CartRepository;
+import com.dynamiconlineshopping.backend.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductTypeaheadTest {
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private CartRepository cartRepository;
+
+    @Test
+    void suggest_matchesTitleWordsAndSku_rankedByStockAndPopularity() {
+        ProductTypeahead typeahead = new ProductTypeahead(productRepository, cartRepository, 5, 24, 0, 100);
+        when(cartRepository.countByProduct()).thenReturn(List.<Object[]>of(new Object[]{2L, 7L}));
+        when(productRepository.findSliceByIdAsc(eq(0L), isNull(), isNull(), eq(false), any(Pageable.class)))
+                .thenReturn(List.of(
+                        product(1L, "Wireless Mouse", "MOU-001", 5),
+                        product(2L, "Gaming Mouse", "MOU-002", 5),
+                        product(3L, "Mouse Pad", "PAD-003", 0)));
+
+        typeahead.rebuild();
+
+        assertThat(typeahead.suggest("mou", 10)).extracting(ProductSuggestion::getId).containsExactly(2L, 1L, 3L);
+        assertThat(typeahead.suggest("Wire", 10)).extracting(ProductSuggestion::getId).containsExactly(1L);
+        assertThat(typeahead.suggest("pad-0", 10)).extracting(ProductSuggestion::getId).containsExactly(3L);
+        assertThat(typeahead.suggest("mou", 1)).hasSize(1);
+        assertThat(typeahead.suggest("keyboard", 10)).isEmpty();
+    }
+
+    @Test
+    void prefixTrie_keepsOnlyTopKPerNode() {
+        PrefixTrie.Builder builder = new PrefixTrie.Builder(2, 3);
+        builder.add("cable", 0);
+        builder.add("camera", 1);
+        builder.add("cap", 2);
+
+        PrefixTrie trie = builder.build();
+        assertThat(trie.lookup("ca")).containsExactly(0, 1);
+        assertThat(trie.lookup("cap")).containsExactly(2);
+        assertThat(trie.lookup("x")).isEmpty();
+    }
+
+    private static Product product(Long id, String title, String sku, int stock) {
+        return Product.builder().id(id).title(title).sku(sku).stock(stock).build();
+    }
+}
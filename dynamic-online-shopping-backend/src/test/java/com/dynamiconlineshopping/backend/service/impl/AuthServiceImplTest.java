@@ -1,12 +1,21 @@
 package com.dynamiconlineshopping.backend.service.impl;
 
+import com.dynamiconlineshopping.backend.cache.UserIdentity;
+import com.dynamiconlineshopping.backend.cache.UserIdentityCache;
 import com.dynamiconlineshopping.backend.config.JwtUtil;
+import com.dynamiconlineshopping.backend.config.TokenRevocationList;
 import com.dynamiconlineshopping.backend.dto.AuthRequest;
 import com.dynamiconlineshopping.backend.dto.RegisterRequest;
+import com.dynamiconlineshopping.backend.entity.RefreshToken;
 import com.dynamiconlineshopping.backend.entity.User;
 import com.dynamiconlineshopping.backend.enums.Role;
+import com.dynamiconlineshopping.backend.exception.InvalidTokenException;
+import com.dynamiconlineshopping.backend.repository.RefreshTokenRepository;
 import com.dynamiconlineshopping.backend.repository.UserRepository;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,6 +27,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Instant;
+import java.util.Date;
 import java.util.Map;
 import java.util.Optional;
 
@@ -31,6 +42,9 @@ class AuthServiceImplTest {
     @Mock private PasswordEncoder passwordEncoder;
     @Mock private AuthenticationManager authenticationManager;
     @Mock private JwtUtil jwtUtil;
+    @Mock private RefreshTokenRepository refreshTokenRepository;
+    @Mock private UserIdentityCache userIdentityCache;
+    @Mock private TokenRevocationList tokenRevocationList;
 
     @InjectMocks
     private AuthServiceImpl authService;
@@ -88,6 +102,7 @@ class AuthServiceImplTest {
 
         verify(passwordEncoder).encode("pass");
         verify(userRepository).save(userCaptor.capture());
+        verify(userIdentityCache).invalidate("b@b.com");
 
         User saved = userCaptor.getValue();
         assertThat(saved.getEmail()).isEqualTo("b@b.com");
@@ -111,7 +126,7 @@ class AuthServiceImplTest {
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("Bad creds");
 
-        verify(userRepository, never()).findByEmail(anyString());
+        verify(userIdentityCache, never()).findByEmail(anyString());
     }
 
     @Test
@@ -132,8 +147,9 @@ class AuthServiceImplTest {
         Authentication mockAuth = new UsernamePasswordAuthenticationToken("c@c.com", null);
         when(authenticationManager.authenticate(any())).thenReturn(mockAuth);
 
-        when(userRepository.findByEmail("c@c.com")).thenReturn(Optional.of(user));
-        when(jwtUtil.generateToken("c@c.com", "ADMIN")).thenReturn("tok-123");
+        when(userIdentityCache.findByEmail("c@c.com")).thenReturn(Optional.of(UserIdentity.from(user)));
+        when(userRepository.getReferenceById(10L)).thenReturn(user);
+        when(jwtUtil.generateToken("c@c.com", "ADMIN", 10L)).thenReturn("tok-123");
 
         Object response = authService.login(req);
 
@@ -141,16 +157,111 @@ class AuthServiceImplTest {
         Map<?, ?> result = (Map<?, ?>) response;
 
         assertThat(result.get("token")).isEqualTo("tok-123");
+        assertThat(result.get("refreshToken")).isInstanceOf(String.class);
         assertThat(result.get("email")).isEqualTo("c@c.com");
         assertThat(result.get("role")).isEqualTo(Role.ADMIN);
         assertThat(result.get("name")).isEqualTo("C User");
+        verify(refreshTokenRepository).save(any(RefreshToken.class));
+    }
+
+    // =========================== REFRESH TESTS =============================
+
+    @Test
+    void refresh_success_rotatesWithoutPasswordCheck() {
+        User user = User.builder().id(10L).email("c@c.com").role(Role.CUSTOMER).build();
+        RefreshToken stored = RefreshToken.builder()
+                .id(1L).user(user).expiresAt(Instant.now().plusSeconds(60)).revoked(false).build();
+
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.revokeIfActive(1L)).thenReturn(1);
+        when(jwtUtil.generateToken("c@c.com", "CUSTOMER", 10L)).thenReturn("tok-new");
+
+        Map<?, ?> result = (Map<?, ?>) authService.refresh("raw-refresh");
+
+        assertThat(result.get("token")).isEqualTo("tok-new");
+        assertThat(result.get("refreshToken")).isNotEqualTo("raw-refresh");
+        verify(refreshTokenRepository).save(any(RefreshToken.class));
+        verifyNoInteractions(authenticationManager, passwordEncoder);
+    }
+
+    @Test
+    void refresh_whenTokenReused_revokesAllSessions() {
+        User user = User.builder().id(10L).email("c@c.com").role(Role.CUSTOMER).build();
+        RefreshToken stored = RefreshToken.builder()
+                .id(1L).user(user).expiresAt(Instant.now().plusSeconds(60)).revoked(true).build();
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored));
+
+        assertThatThrownBy(() -> authService.refresh("raw-refresh"))
+                .isInstanceOf(InvalidTokenException.class);
+        verify(refreshTokenRepository).revokeAllForUser(10L);
+        verify(tokenRevocationList).revokeUser(10L);
+    }
+
+    @Test
+    void refresh_whenUnknown_throws() {
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> authService.refresh("nope"))
+                .isInstanceOf(InvalidTokenException.class);
+    }
+
+    // ============================ LOGOUT TESTS ==============================
+
+    @Test
+    void logout_revokesAccessAndRefreshToken() {
+        Date exp = new Date(System.currentTimeMillis() + 60_000);
+        Claims claims = mock(Claims.class);
+        when(claims.getId()).thenReturn("jti-1");
+        when(claims.getExpiration()).thenReturn(exp);
+        RefreshToken stored = RefreshToken.builder().id(7L).revoked(false).build();
+
+        when(jwtUtil.extractAllClaims("access")).thenReturn(claims);
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored));
+
+        authService.logout("access", "raw-refresh");
+
+        verify(tokenRevocationList).revokeToken("jti-1", exp.toInstant());
+        verify(refreshTokenRepository).revokeIfActive(7L);
+    }
+
+    @Test
+    void logout_withExpiredAccessToken_stillRevokesRefreshToken() {
+        RefreshToken stored = RefreshToken.builder().id(7L).revoked(false).build();
+        when(jwtUtil.extractAllClaims("expired")).thenThrow(new ExpiredJwtException(null, null, "expired"));
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored));
+
+        authService.logout("expired", "raw-refresh");
+
+        verify(refreshTokenRepository).revokeIfActive(7L);
+        verifyNoInteractions(tokenRevocationList);
+    }
+
+    @Test
+    void logout_withInvalidAccessToken_throws() {
+        when(jwtUtil.extractAllClaims("bad")).thenThrow(new JwtException("bad signature"));
+
+        assertThatThrownBy(() -> authService.logout("bad", null))
+                .isInstanceOf(InvalidTokenException.class);
+        verifyNoInteractions(tokenRevocationList);
+    }
+
+    @Test
+    void purgeRefreshTokens_keepsRevokedRowsForRetentionWindow() {
+        org.springframework.test.util.ReflectionTestUtils.setField(authService, "refreshRevokedRetentionMs", 60_000L);
+        ArgumentCaptor<Instant> now = ArgumentCaptor.forClass(Instant.class);
+        ArgumentCaptor<Instant> cutoff = ArgumentCaptor.forClass(Instant.class);
+
+        authService.purgeRefreshTokens();
+
+        verify(refreshTokenRepository).deleteExpiredAndRevoked(now.capture(), cutoff.capture());
+        assertThat(cutoff.getValue()).isEqualTo(now.getValue().minusMillis(60_000L));
     }
 
     // ===================== loadUserByUsername TESTS ========================
 
     @Test
     void loadUserByUsername_notFound_shouldThrow() {
-        when(userRepository.findByEmail("not@found.com")).thenReturn(Optional.empty());
+        when(userIdentityCache.findByEmail("not@found.com")).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> authService.loadUserByUsername("not@found.com"))
                 .isInstanceOf(UsernameNotFoundException.class);
@@ -164,7 +275,7 @@ class AuthServiceImplTest {
                 .role(Role.CUSTOMER)
                 .build();
 
-        when(userRepository.findByEmail("d@d.com")).thenReturn(Optional.of(user));
+        when(userIdentityCache.findByEmail("d@d.com")).thenReturn(Optional.of(UserIdentity.from(user)));
 
         var ud = authService.loadUserByUsername("d@d.com");
 
@@ -1,10 +1,17 @@
 package com.dynamiconlineshopping.backend.service.impl;
 
+import com.dynamiconlineshopping.backend.config.AuthenticatedUser;
+import com.dynamiconlineshopping.backend.cache.CartQuantityBuffer;
+import com.dynamiconlineshopping.backend.cache.UserIdentity;
+import com.dynamiconlineshopping.backend.cache.UserIdentityCache;
 import com.dynamiconlineshopping.backend.dto.CartItemDto;
+import com.dynamiconlineshopping.backend.dto.CartOperation;
 import com.dynamiconlineshopping.backend.dto.ProductDto;
 import com.dynamiconlineshopping.backend.entity.CartItem;
 import com.dynamiconlineshopping.backend.entity.Product;
 import com.dynamiconlineshopping.backend.entity.User;
+import com.dynamiconlineshopping.backend.enums.CartOperationType;
+import com.dynamiconlineshopping.backend.exception.BadRequestException;
 import com.dynamiconlineshopping.backend.exception.ResourceNotFoundException;
 import com.dynamiconlineshopping.backend.repository.CartRepository;
 import com.dynamiconlineshopping.backend.repository.ProductRepository;
@@ -12,12 +19,15 @@ import com.dynamiconlineshopping.backend.repository.UserRepository;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -31,6 +41,10 @@ class CartServiceImplTest {
     private ProductRepository productRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private UserIdentityCache userIdentityCache;
+    @Mock
+    private CartQuantityBuffer cartQuantityBuffer;
 
     @InjectMocks
     private CartServiceImpl cartService;
@@ -43,11 +57,14 @@ class CartServiceImplTest {
     void setUp() {
         user = User.builder().id(11L).email(EMAIL).build();
 
+        // lenient: tests that fail validation or use a token principal never read the context
         Authentication auth = mock(Authentication.class);
-        when(auth.getName()).thenReturn(EMAIL);
+        lenient().when(auth.getName()).thenReturn(EMAIL);
         SecurityContext sc = mock(SecurityContext.class);
-        when(sc.getAuthentication()).thenReturn(auth);
+        lenient().when(sc.getAuthentication()).thenReturn(auth);
         SecurityContextHolder.setContext(sc);
+        // a mocked Integer would be 0 and override every stored quantity
+        lenient().when(cartQuantityBuffer.peek(any())).thenReturn(null);
     }
 
     @AfterEach
@@ -55,9 +72,15 @@ class CartServiceImplTest {
         SecurityContextHolder.clearContext();
     }
 
+    // Tokens without a uid claim resolve the user through the identity cache
+    private void stubCurrentUserLookup() {
+        when(userIdentityCache.findByEmail(EMAIL)).thenReturn(Optional.of(UserIdentity.from(user)));
+        when(userRepository.getReferenceById(user.getId())).thenReturn(user);
+    }
+
     @Test
     void getCartForCurrentUser_returnsDtos() {
-        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+        stubCurrentUserLookup();
 
         Product p = Product.builder().id(1L).title("T").price(10.0).stock(5).sku("s").imageUrl("u").build();
         CartItem c = CartItem.builder().id(2L).user(user).product(p).quantity(2).build();
@@ -70,7 +93,7 @@ class CartServiceImplTest {
 
     @Test
     void addItem_whenProductMissing_throws() {
-        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+        stubCurrentUserLookup();
         when(productRepository.findById(99L)).thenReturn(Optional.empty());
 
         CartItemDto dto = CartItemDto.builder().productId(99L).quantity(1).build();
@@ -78,20 +101,110 @@ class CartServiceImplTest {
     }
 
     @Test
-    void addItem_success_addsAndReturnsCart() {
-        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+    void addItem_newProduct_upsertsAndAppendsToCartInHand() {
+        stubCurrentUserLookup();
         Product p = Product.builder().id(1L).title("X").price(5.0).build();
+        Product other = Product.builder().id(2L).title("Y").price(1.0).build();
+        CartItem held = CartItem.builder().id(6L).user(user).product(other).quantity(1).build();
+        when(cartRepository.findByUser(user)).thenReturn(List.of(held));
         when(productRepository.findById(1L)).thenReturn(Optional.of(p));
-
-        // cartRepo.save should capture; getCartForCurrentUser will call findByUser -> return the saved item
-        CartItem saved = CartItem.builder().id(7L).user(user).product(p).quantity(3).build();
-        when(cartRepository.save(any(CartItem.class))).thenReturn(saved);
-        when(cartRepository.findByUser(user)).thenReturn(List.of(saved));
+        when(cartRepository.upsert(11L, 1L, 3)).thenReturn(line(7L, 3));
 
         CartItemDto dto = CartItemDto.builder().productId(1L).quantity(3).build();
         List<CartItemDto> out = cartService.addItem(dto);
+        assertThat(out).extracting(CartItemDto::getProductId).containsExactly(2L, 1L);
+        assertThat(out.get(1).getId()).isEqualTo(7L);
+        assertThat(out.get(1).getQuantity()).isEqualTo(3);
+        verify(cartRepository, times(1)).findByUser(user);
+        verify(cartRepository, never()).save(any(CartItem.class));
+    }
+
+    @Test
+    void addItem_productAlreadyInCart_usesUpsertedQuantity_withoutProductLookup() {
+        stubCurrentUserLookup();
+        Product p = Product.builder().id(1L).title("X").price(5.0).build();
+        CartItem held = CartItem.builder().id(7L).user(user).product(p).quantity(2).build();
+        when(cartRepository.findByUser(user)).thenReturn(List.of(held));
+        when(cartRepository.upsert(11L, 1L, 1)).thenReturn(line(7L, 3));
+
+        List<CartItemDto> out = cartService.addItem(CartItemDto.builder().productId(1L).build());
         assertThat(out).hasSize(1);
-        assertThat(out.get(0).getProductId()).isEqualTo(1L);
+        assertThat(out.get(0).getQuantity()).isEqualTo(3);
+        assertThat(held.getQuantity()).isEqualTo(2);
+        verify(productRepository, never()).findById(anyLong());
+        verify(cartQuantityBuffer).flushUser(11L);
+    }
+
+    @Test
+    void addItem_withNonPositiveQuantity_throws() {
+        CartItemDto dto = CartItemDto.builder().productId(1L).quantity(0).build();
+        assertThatThrownBy(() -> cartService.addItem(dto)).isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(cartRepository);
+    }
+
+    @Test
+    void addItem_withTokenPrincipal_usesReferenceInsteadOfLookup() {
+        SecurityContextHolder.setContext(new SecurityContextImpl(new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(11L, EMAIL, "CUSTOMER"), null, List.of())));
+        when(userRepository.getReferenceById(11L)).thenReturn(user);
+        Product p = Product.builder().id(1L).title("X").price(5.0).build();
+        when(productRepository.findById(1L)).thenReturn(Optional.of(p));
+        when(cartRepository.upsert(11L, 1L, 1)).thenReturn(line(7L, 1));
+
+        List<CartItemDto> out = cartService.addItem(CartItemDto.builder().productId(1L).quantity(1).build());
+        assertThat(out).hasSize(1);
+        verify(userIdentityCache, never()).findByEmail(anyString());
+    }
+
+    @Test
+    void applyOperations_foldsPerProduct_andWritesEachKindOnce() {
+        stubCurrentUserLookup();
+        Product kept = Product.builder().id(1L).title("Kept").price(5.0).build();
+        Product dropped = Product.builder().id(2L).title("Dropped").price(1.0).build();
+        Product added = Product.builder().id(3L).title("Added").price(2.0).build();
+        CartItem keptLine = CartItem.builder().id(10L).user(user).product(kept).quantity(1).build();
+        CartItem droppedLine = CartItem.builder().id(11L).user(user).product(dropped).quantity(4).build();
+        when(cartRepository.findByUser(user)).thenReturn(List.of(keptLine, droppedLine));
+        when(productRepository.findAllById(Set.of(3L))).thenReturn(List.of(added));
+        when(cartRepository.upsertQuantity(11L, 3L, 3)).thenReturn(line(12L, 3));
+
+        List<CartItemDto> out = cartService.applyOperations(List.of(
+                CartOperation.builder().op(CartOperationType.ADD).productId(1L).quantity(2).build(),
+                CartOperation.builder().op(CartOperationType.SET).productId(2L).quantity(0).build(),
+                CartOperation.builder().op(CartOperationType.ADD).productId(3L).build(),
+                CartOperation.builder().op(CartOperationType.ADD).productId(3L).quantity(2).build(),
+                CartOperation.builder().op(CartOperationType.REMOVE).productId(9L).build()));
+
+        assertThat(out).extracting(CartItemDto::getProductId).containsExactly(1L, 3L);
+        assertThat(out).extracting(CartItemDto::getQuantity).containsExactly(3, 3);
+        assertThat(keptLine.getQuantity()).isEqualTo(3);
+        verify(cartRepository).deleteAllInBatch(List.of(droppedLine));
+        verify(cartRepository).upsertQuantity(11L, 3L, 3);
+        verify(cartRepository, never()).saveAll(anyList());
+        verify(cartRepository, times(1)).findByUser(user);
+    }
+
+    @Test
+    void applyOperations_withUnknownProduct_throws() {
+        stubCurrentUserLookup();
+        when(cartRepository.findByUser(user)).thenReturn(List.of());
+        when(productRepository.findAllById(Set.of(5L))).thenReturn(List.of());
+
+        List<CartOperation> ops = List.of(CartOperation.builder().op(CartOperationType.SET).productId(5L).quantity(1).build());
+        assertThatThrownBy(() -> cartService.applyOperations(ops))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("5");
+        verify(cartRepository, never()).upsertQuantity(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    void applyOperations_rejectsEmptyAndInvalidOperations() {
+        assertThatThrownBy(() -> cartService.applyOperations(List.of())).isInstanceOf(BadRequestException.class);
+
+        stubCurrentUserLookup();
+        List<CartOperation> negative = List.of(CartOperation.builder().op(CartOperationType.SET).productId(1L).quantity(-1).build());
+        assertThatThrownBy(() -> cartService.applyOperations(negative)).isInstanceOf(BadRequestException.class);
+        verify(cartRepository, never()).deleteAllInBatch(anyIterable());
     }
 
     @Test
@@ -107,7 +220,7 @@ class CartServiceImplTest {
         CartItem existing = CartItem.builder().id(3L).product(p).quantity(1).build();
         when(cartRepository.findById(3L)).thenReturn(Optional.of(existing));
         doAnswer(inv -> { existing.setQuantity(4); return existing; }).when(cartRepository).save(existing);
-        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+        stubCurrentUserLookup();
         when(cartRepository.findByUser(user)).thenReturn(List.of(existing));
 
         CartItemDto dto = CartItemDto.builder().quantity(4).build();
@@ -116,6 +229,52 @@ class CartServiceImplTest {
         assertThat(out.get(0).getQuantity()).isEqualTo(4);
     }
 
+    @Test
+    void updateItem_whenBuffering_firstChangeChecksOwnership_laterChangesSkipTheQuery() {
+        stubCurrentUserLookup();
+        Product p = Product.builder().id(1L).title("X").price(5.0).build();
+        CartItem stored = CartItem.builder().id(3L).user(user).product(p).quantity(1).build();
+        when(cartQuantityBuffer.isEnabled()).thenReturn(true);
+        when(cartQuantityBuffer.isPendingFor(3L, 11L)).thenReturn(false, true);
+        when(cartRepository.existsByIdAndUserId(3L, 11L)).thenReturn(true);
+        when(cartRepository.findByUser(user)).thenReturn(List.of(stored));
+        when(cartQuantityBuffer.peek(3L)).thenReturn(2, 5);
+
+        cartService.updateItem(3L, CartItemDto.builder().quantity(2).build());
+        List<CartItemDto> out = cartService.updateItem(3L, CartItemDto.builder().quantity(5).build());
+
+        assertThat(out.get(0).getQuantity()).isEqualTo(5);
+        verify(cartRepository, times(1)).existsByIdAndUserId(3L, 11L);
+        verify(cartQuantityBuffer).buffer(3L, 11L, 2);
+        verify(cartQuantityBuffer).buffer(3L, 11L, 5);
+        verify(cartRepository, never()).findById(anyLong());
+        verify(cartRepository, never()).save(any(CartItem.class));
+    }
+
+    @Test
+    void updateItem_whenBuffering_unknownLine_throws() {
+        stubCurrentUserLookup();
+        when(cartQuantityBuffer.isEnabled()).thenReturn(true);
+        when(cartRepository.existsByIdAndUserId(5L, 11L)).thenReturn(false);
+
+        CartItemDto dto = CartItemDto.builder().quantity(2).build();
+        assertThatThrownBy(() -> cartService.updateItem(5L, dto)).isInstanceOf(ResourceNotFoundException.class);
+        verify(cartQuantityBuffer, never()).buffer(anyLong(), any(), anyInt());
+    }
+
+    @Test
+    void updateItem_whenBuffering_otherUsersPendingLine_isChecked_andRejected() {
+        stubCurrentUserLookup();
+        when(cartQuantityBuffer.isEnabled()).thenReturn(true);
+        // line 3 is buffered for its owner, not for user 11
+        when(cartQuantityBuffer.isPendingFor(3L, 11L)).thenReturn(false);
+        when(cartRepository.existsByIdAndUserId(3L, 11L)).thenReturn(false);
+
+        CartItemDto dto = CartItemDto.builder().quantity(9).build();
+        assertThatThrownBy(() -> cartService.updateItem(3L, dto)).isInstanceOf(ResourceNotFoundException.class);
+        verify(cartQuantityBuffer, never()).buffer(anyLong(), any(), anyInt());
+    }
+
     @Test
     void removeItem_whenNotFound_throws() {
         when(cartRepository.findById(8L)).thenReturn(Optional.empty());
@@ -128,10 +287,25 @@ class CartServiceImplTest {
         CartItem item = CartItem.builder().id(4L).product(p).user(user).quantity(1).build();
         when(cartRepository.findById(4L)).thenReturn(Optional.of(item));
         doNothing().when(cartRepository).delete(item);
-        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+        stubCurrentUserLookup();
         when(cartRepository.findByUser(user)).thenReturn(List.of());
 
         List<CartItemDto> out = cartService.removeItem(4L);
         assertThat(out).isEmpty();
+        verify(cartQuantityBuffer).discard(4L);
+    }
+
+    private static CartRepository.UpsertedLine line(Long id, Integer quantity) {
+        return new CartRepository.UpsertedLine() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Integer getQuantity() {
+                return quantity;
+            }
+        };
     }
 }
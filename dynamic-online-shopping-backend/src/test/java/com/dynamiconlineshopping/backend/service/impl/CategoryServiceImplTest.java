@@ -0,0 +1,68 @@
+package com.dynamiconlineshopping.backend.service.impl;
+
+import com.dynamiconlineshopping.backend.dto.CategoryDto;
+import com.dynamiconlineshopping.backend.entity.Category;
+import com.dynamiconlineshopping.backend.exception.BadRequestException;
+import com.dynamiconlineshopping.backend.repository.CategoryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(org.mockito.junit.jupiter.MockitoExtension.class)
+class CategoryServiceImplTest {
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @InjectMocks
+    private CategoryServiceImpl categoryService;
+
+    @Test
+    void getTree_nestsByPath_andSortsByName() {
+        when(categoryRepository.findAll()).thenReturn(List.of(
+                Category.builder().id(1L).name("Electronics").path("/1/").productCount(3).build(),
+                Category.builder().id(5L).name("Tablets").path("/1/5/").depth(1).productCount(1).build(),
+                Category.builder().id(4L).name("Phones").path("/1/4/").depth(1).productCount(2).build(),
+                Category.builder().id(2L).name("Books").path("/2/").build()));
+
+        List<CategoryDto> roots = categoryService.getTree();
+
+        assertThat(roots).extracting(CategoryDto::getName).containsExactly("Books", "Electronics");
+        CategoryDto electronics = roots.get(1);
+        assertThat(electronics.getProductCount()).isEqualTo(3);
+        assertThat(electronics.getChildren()).extracting(CategoryDto::getName).containsExactly("Phones", "Tablets");
+        assertThat(electronics.getChildren().get(0).getParentId()).isEqualTo(1L);
+    }
+
+    @Test
+    void create_appendsOwnIdToParentPath() {
+        Category parent = Category.builder().id(1L).name("Electronics").path("/1/").build();
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(parent));
+        when(categoryRepository.save(any(Category.class))).thenAnswer(inv -> {
+            Category c = inv.getArgument(0);
+            if (c.getId() == null) {
+                c.setId(7L);
+            }
+            return c;
+        });
+
+        CategoryDto created = categoryService.create(CategoryDto.builder().name(" Phones ").parentId(1L).build());
+
+        assertThat(created.getPath()).isEqualTo("/1/7/");
+        assertThat(created.getDepth()).isEqualTo(1);
+        assertThat(created.getName()).isEqualTo("Phones");
+    }
+
+    @Test
+    void create_withUnknownParent_throws() {
+        when(categoryRepository.findById(9L)).thenReturn(Optional.empty());
+        assertThatThrownBy(() -> categoryService.create(CategoryDto.builder().name("X").parentId(9L).build()))
+                .isInstanceOf(BadRequestException.class);
+    }
+}
@@ -1,5 +1,8 @@
 package com.dynamiconlineshopping.backend.service.impl;
 
+import com.dynamiconlineshopping.backend.cache.CartQuantityBuffer;
+import com.dynamiconlineshopping.backend.cache.UserIdentity;
+import com.dynamiconlineshopping.backend.cache.UserIdentityCache;
 import com.dynamiconlineshopping.backend.dto.OrderResponseDto;
 import com.dynamiconlineshopping.backend.entity.CartItem;
 import com.dynamiconlineshopping.backend.entity.Order;
@@ -33,6 +36,10 @@ class OrderServiceImplTest {
     private OrderRepository orderRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private UserIdentityCache userIdentityCache;
+    @Mock
+    private CartQuantityBuffer cartQuantityBuffer;
 
     @InjectMocks
     private OrderServiceImpl orderService;
@@ -55,9 +62,15 @@ class OrderServiceImplTest {
         SecurityContextHolder.clearContext();
     }
 
+    // Tokens without a uid claim resolve the user through the identity cache
+    private void stubCurrentUserLookup() {
+        when(userIdentityCache.findByEmail(EMAIL)).thenReturn(Optional.of(UserIdentity.from(user)));
+        when(userRepository.getReferenceById(user.getId())).thenReturn(user);
+    }
+
     @Test
     void placeOrder_whenCartEmpty_throws() {
-        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+        stubCurrentUserLookup();
         when(cartRepository.findByUser(user)).thenReturn(List.of());
 
         assertThatThrownBy(() -> orderService.placeOrderForCurrentUser())
@@ -67,7 +80,7 @@ class OrderServiceImplTest {
 
     @Test
     void placeOrder_success_createsOrderAndEmptiesCart() {
-        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+        stubCurrentUserLookup();
         Product p = Product.builder().id(2L).price(10.0).build();
         CartItem c = CartItem.builder().id(3L).product(p).quantity(2).user(user).build();
         when(cartRepository.findByUser(user)).thenReturn(List.of(c));
@@ -83,6 +96,9 @@ class OrderServiceImplTest {
 
         verify(cartRepository).deleteAll(List.of(c));
         verify(orderRepository).save(any(Order.class));
+        InOrder flushFirst = inOrder(cartQuantityBuffer, cartRepository);
+        flushFirst.verify(cartQuantityBuffer).flushUser(user.getId());
+        flushFirst.verify(cartRepository).findByUser(user);
     }
 
     @Test
@@ -93,7 +109,7 @@ class OrderServiceImplTest {
 
     @Test
     void listOrdersForCurrentUser_returnsDtos() {
-        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+        stubCurrentUserLookup();
         Order o = Order.builder().id(55L).user(user).totalAmount(5.0).status(OrderStatus.PENDING).createdAt(Instant.now()).build();
         when(orderRepository.findByUser(user)).thenReturn(List.of(o));
 
@@ -1,16 +1,42 @@
 package com.dynamiconlineshopping.backend.service.impl;
 
+import com.dynamiconlineshopping.backend.cache.CatalogSnapshot;
+import com.dynamiconlineshopping.backend.cache.MappedCatalog;
+import com.dynamiconlineshopping.backend.cache.ProductCache;
+import com.dynamiconlineshopping.backend.cache.SingleFlight;
+import com.dynamiconlineshopping.backend.dto.ProductBatch;
 import com.dynamiconlineshopping.backend.dto.ProductDto;
+import com.dynamiconlineshopping.backend.dto.ProductPage;
+import com.dynamiconlineshopping.backend.dto.ProductPageRequest;
+import com.dynamiconlineshopping.backend.dto.ProductSearchPage;
+import com.dynamiconlineshopping.backend.dto.ProductVersion;
+import com.dynamiconlineshopping.backend.entity.Category;
 import com.dynamiconlineshopping.backend.entity.Product;
+import com.dynamiconlineshopping.backend.enums.ProductSort;
+import com.dynamiconlineshopping.backend.exception.BadRequestException;
+import com.dynamiconlineshopping.backend.exception.ConflictException;
 import com.dynamiconlineshopping.backend.exception.ResourceNotFoundException;
+import com.dynamiconlineshopping.backend.repository.CategoryRepository;
 import com.dynamiconlineshopping.backend.repository.ProductRepository;
+import com.dynamiconlineshopping.backend.search.Bm25Index;
+import com.dynamiconlineshopping.backend.search.CatalogIndex;
+import com.dynamiconlineshopping.backend.search.ColumnarCatalog;
+import com.dynamiconlineshopping.backend.search.ProductSearchIndex;
+import com.dynamiconlineshopping.backend.search.ProductTypeahead;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -21,6 +47,34 @@ class ProductServiceImplTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    // runs callbacks directly; the mocked manager hands out no real transactions
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @Spy
+    private ProductCache productCache = new ProductCache(new SimpleMeterRegistry(), 100, 100, 60);
+
+    @Mock
+    private CatalogSnapshot catalogSnapshot;
+
+    @Mock
+    private MappedCatalog mappedCatalog;
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private CatalogIndex catalogIndex;
+
+    @Mock
+    private ProductTypeahead productTypeahead;
+
+    @Spy
+    private SingleFlight singleFlight = new SingleFlight(new SimpleMeterRegistry());
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -41,11 +95,117 @@ class ProductServiceImplTest {
 
     @Test
     void getAll_returnsDtos() {
-        when(productRepository.findAll()).thenReturn(List.of(product));
+        when(productRepository.findSliceByIdAsc(eq(0L), isNull(), isNull(), eq(false), any(Pageable.class)))
+                .thenReturn(List.of(product));
 
         List<ProductDto> out = productService.getAll();
         assertThat(out).hasSize(1);
         assertThat(out.get(0).getTitle()).isEqualTo("Phone");
+        verify(productRepository, never()).findAll();
+    }
+
+    @Test
+    void getPage_returnsCursorWhenMoreRowsExist_andCursorContinuesAfterLastRow() {
+        Product second = Product.builder().id(2L).title("Tablet").price(150.0).build();
+        Product third = Product.builder().id(3L).title("Laptop").price(150.0).build();
+        when(productRepository.findSliceByPriceAsc(isNull(), eq(0L), isNull(), isNull(), eq(false), any(Pageable.class)))
+                .thenReturn(List.of(product, second, third));
+
+        ProductPage first = productService.getPage(ProductPageRequest.builder().sort(ProductSort.PRICE_ASC).limit(2).build());
+        assertThat(first.getItems()).extracting(ProductDto::getId).containsExactly(1L, 2L);
+        assertThat(first.getNextCursor()).isNotNull();
+
+        when(productRepository.findSliceByPriceAsc(eq(150.0), eq(2L), isNull(), isNull(), eq(false), any(Pageable.class)))
+                .thenReturn(List.of(third));
+        ProductPage next = productService.getPage(ProductPageRequest.builder()
+                .sort(ProductSort.PRICE_ASC).limit(2).cursor(first.getNextCursor()).build());
+        assertThat(next.getItems()).extracting(ProductDto::getId).containsExactly(3L);
+        assertThat(next.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getPage_usesColumnarIndexWhenReady_andReadsOnlyThePage() {
+        Product second = Product.builder().id(2L).title("Tablet").price(150.0).build();
+        when(catalogIndex.isReady()).thenReturn(true);
+        when(catalogIndex.query(ProductSort.PRICE_DESC, null, Long.MAX_VALUE, 50.0, null, true, 2))
+                .thenReturn(new ColumnarCatalog.Slice(new long[]{2L, 1L}, true));
+        when(productRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(product, second));
+
+        ProductPage page = productService.getPage(ProductPageRequest.builder()
+                .sort(ProductSort.PRICE_DESC).limit(2).minPrice(50.0).inStock(true).build());
+
+        assertThat(page.getItems()).extracting(ProductDto::getId).containsExactly(2L, 1L);
+        assertThat(page.getNextCursor()).isNotNull();
+        verify(productRepository, never()).findSliceByPriceDesc(any(), anyLong(), any(), any(), anyBoolean(), any(Pageable.class));
+    }
+
+    @Test
+    void getPage_clampsLimit() {
+        when(productRepository.findSliceByIdAsc(eq(0L), isNull(), isNull(), eq(true), any(Pageable.class)))
+                .thenReturn(List.of(product));
+
+        ProductPage page = productService.getPage(ProductPageRequest.builder().limit(10_000).inStock(true).build());
+        assertThat(page.getLimit()).isEqualTo(100);
+    }
+
+    @Test
+    void getPage_withCursorFromOtherSort_throws() {
+        when(productRepository.findSliceByIdAsc(eq(0L), isNull(), isNull(), eq(false), any(Pageable.class)))
+                .thenReturn(List.of(product, product));
+        String idCursor = productService.getPage(ProductPageRequest.builder().limit(1).build()).getNextCursor();
+
+        assertThatThrownBy(() -> productService.getPage(ProductPageRequest.builder()
+                .sort(ProductSort.PRICE_DESC).cursor(idCursor).build()))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> productService.getPage(ProductPageRequest.builder().cursor("not-a-cursor!").build()))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void getById_isReadThrough_andDeleteInvalidates() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+        assertThat(productService.getById(1L).getTitle()).isEqualTo("Phone");
+        assertThat(productService.getById(1L).getTitle()).isEqualTo("Phone");
+        verify(productRepository, times(1)).findById(1L);
+
+        productService.delete(1L);
+        when(productRepository.findById(1L)).thenReturn(Optional.empty());
+        assertThatThrownBy(() -> productService.getById(1L)).isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void getById_prefersMappedCatalogFile() {
+        when(mappedCatalog.find(3L)).thenReturn(ProductDto.builder().id(3L).title("Mapped").build());
+
+        assertThat(productService.getById(3L).getTitle()).isEqualTo("Mapped");
+        verify(productRepository, never()).findById(3L);
+        // the file may be unverified, so its answer must not outlive it in the cache
+        assertThat(productCache.peek(3L)).isNull();
+    }
+
+    @Test
+    void getBatch_keepsRequestOrder_reportsMisses_andUsesOneQueryPerKind() {
+        Product second = Product.builder().id(2L).title("Tablet").sku("SKU2").build();
+        when(productRepository.findAllById(anyCollection())).thenReturn(List.of(product, second));
+        when(productRepository.findBySkuIn(List.of("SKU2", "NOPE"))).thenReturn(List.of(second));
+
+        ProductBatch batch = productService.getBatch(List.of(2L, 9L, 1L, 2L), List.of("SKU2", " NOPE "));
+
+        assertThat(batch.getItems()).extracting(ProductDto::getId).containsExactly(2L, 1L);
+        assertThat(batch.getMissingIds()).containsExactly(9L);
+        assertThat(batch.getMissingSkus()).containsExactly("NOPE");
+        verify(productRepository, times(1)).findAllById(anyCollection());
+
+        // found ids are now cached; only the miss is asked for again
+        productService.getBatch(List.of(1L, 9L), null);
+        verify(productRepository).findAllById(Set.of(9L));
+    }
+
+    @Test
+    void getBatch_overLimit_throws() {
+        List<Long> ids = LongStream.rangeClosed(1, 101).boxed().toList();
+        assertThatThrownBy(() -> productService.getBatch(ids, null)).isInstanceOf(BadRequestException.class);
     }
 
     @Test
@@ -55,6 +215,27 @@ class ProductServiceImplTest {
                 .isInstanceOf(ResourceNotFoundException.class);
     }
 
+    @Test
+    void getVersion_usesCachedProduct_elseVersionQuery() {
+        product.setVersion(3L);
+        when(productRepository.findVersionById(2L)).thenReturn(Optional.of(new ProductVersion(2L, 7L, null)));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        productService.getById(1L);
+
+        assertThat(productService.getVersion(1L).getVersion()).isEqualTo(3L);
+        assertThat(productService.getVersion(2L).getVersion()).isEqualTo(7L);
+        verify(productRepository, never()).findVersionById(1L);
+        verify(productRepository, never()).findById(2L);
+    }
+
+    @Test
+    void writes_invalidateCatalogSnapshot() {
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+        productService.create(ProductDto.builder().title("Phone").build());
+
+        verify(catalogSnapshot).invalidate(any());
+    }
+
     @Test
     void create_savesAndReturnsDto() {
         ProductDto dto = ProductDto.builder().title("New").price(50.0).build();
@@ -67,6 +248,8 @@ class ProductServiceImplTest {
         assertThat(out.getId()).isEqualTo(2L);
         assertThat(out.getTitle()).isEqualTo("New");
         verify(productRepository).save(any());
+        verify(productSearchIndex).onSaved(saved);
+        verify(productTypeahead).markStale();
     }
 
     @Test
@@ -88,6 +271,90 @@ class ProductServiceImplTest {
         verify(productRepository).save(any(Product.class));
     }
 
+    @Test
+    void update_lostToConcurrentWrite_isConflict() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Product.class, 1L));
+
+        ProductDto dto = ProductDto.builder().title("Updated").build();
+        assertThatThrownBy(() -> productService.update(1L, dto)).isInstanceOf(ConflictException.class);
+        verify(productSearchIndex, never()).onSaved(any());
+        verify(catalogIndex, never()).onSaved(any());
+    }
+
+    @Test
+    void createAndUpdate_storeBlankSkuAsNull() {
+        when(productRepository.save(any(Product.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+        assertThat(productService.create(ProductDto.builder().title("A").sku("").build()).getSku()).isNull();
+        assertThat(productService.update(1L, ProductDto.builder().title("B").sku("  ").build()).getSku()).isNull();
+        assertThat(productService.create(ProductDto.builder().title("C").sku(" SKU9 ").build()).getSku()).isEqualTo("SKU9");
+    }
+
+    @Test
+    void getBatch_productAskedForByIdAndSku_isAnsweredOnce() {
+        Product second = Product.builder().id(2L).title("Tablet").sku("SKU2").build();
+        when(productRepository.findAllById(anyCollection())).thenReturn(List.of(second));
+        when(productRepository.findBySkuIn(List.of("SKU2"))).thenReturn(List.of(second));
+
+        ProductBatch batch = productService.getBatch(List.of(2L), List.of("SKU2"));
+
+        assertThat(batch.getItems()).extracting(ProductDto::getId).containsExactly(2L);
+        assertThat(batch.getMissingSkus()).isEmpty();
+    }
+
+    @Test
+    void create_withUnknownCategory_staysBadRequest() {
+        when(categoryRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> productService.create(ProductDto.builder().title("X").categoryId(99L).build()))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void create_withCategory_incrementsEveryAncestorOnce() {
+        Category phones = Category.builder().id(4L).name("Phones").path("/1/4/").depth(1).build();
+        when(categoryRepository.findById(4L)).thenReturn(Optional.of(phones));
+        when(productRepository.save(any(Product.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        ProductDto out = productService.create(ProductDto.builder().title("Phone").categoryId(4L).build());
+
+        assertThat(out.getCategoryId()).isEqualTo(4L);
+        verify(categoryRepository).adjustProductCount(List.of(1L, 4L), 1);
+        verify(categoryRepository, never()).adjustProductCount(anyCollection(), eq(-1L));
+    }
+
+    @Test
+    void update_movingCategory_onlyAdjustsBranchesThatDiffer() {
+        Category phones = Category.builder().id(4L).name("Phones").path("/1/4/").depth(1).build();
+        Category tablets = Category.builder().id(5L).name("Tablets").path("/1/5/").depth(1).build();
+        product.setCategory(phones);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(categoryRepository.findById(5L)).thenReturn(Optional.of(tablets));
+        when(productRepository.save(any(Product.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        productService.update(1L, ProductDto.builder().title("Phone").categoryId(5L).build());
+
+        verify(categoryRepository).adjustProductCount(List.of(4L), -1);
+        verify(categoryRepository).adjustProductCount(List.of(5L), 1);
+    }
+
+    @Test
+    void getByCategory_listsWholeSubtree_byKeyset() {
+        Category electronics = Category.builder().id(1L).name("Electronics").path("/1/").build();
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(electronics));
+        when(categoryRepository.findSubtreeIds("/1/")).thenReturn(List.of(1L, 4L, 5L));
+        when(productRepository.findSliceByCategoryIn(eq(List.of(1L, 4L, 5L)), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(product, Product.builder().id(2L).title("Tablet").build()));
+
+        ProductPage page = productService.getByCategory(1L, null, 1);
+
+        assertThat(page.getItems()).extracting(ProductDto::getId).containsExactly(1L);
+        assertThat(page.getNextCursor()).isNotNull();
+    }
+
     @Test
     void delete_whenNotFound_throws() {
         when(productRepository.findById(9L)).thenReturn(Optional.empty());
@@ -101,5 +368,25 @@ class ProductServiceImplTest {
         doNothing().when(productRepository).delete(any(Product.class));
         productService.delete(1L);
         verify(productRepository).delete(product);
+        verify(productSearchIndex).onDeleted(1L);
+    }
+
+    @Test
+    void search_loadsOnlyTheRankedPage_inRankOrder() {
+        Product other = Product.builder().id(7L).title("Phone case").build();
+        when(productSearchIndex.search("phone", 0, 2)).thenReturn(new Bm25Index.Hits(5, new long[]{7L, 1L}));
+        when(productRepository.findAllById(List.of(7L, 1L))).thenReturn(List.of(product, other));
+
+        ProductSearchPage page = productService.search("phone", 0, 2);
+
+        assertThat(page.getTotal()).isEqualTo(5);
+        assertThat(page.getItems()).extracting(ProductDto::getId).containsExactly(7L, 1L);
+    }
+
+    @Test
+    void search_beyondResultWindow_throws() {
+        assertThatThrownBy(() -> productService.search("phone", 100, 20))
+                .isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(productSearchIndex);
     }
 }
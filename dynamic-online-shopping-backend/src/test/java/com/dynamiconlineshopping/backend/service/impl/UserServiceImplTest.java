@@ -1,5 +1,8 @@
 package com.dynamiconlineshopping.backend.service.impl;
 
+import com.dynamiconlineshopping.backend.cache.SingleFlight;
+import com.dynamiconlineshopping.backend.cache.UserIdentityCache;
+import com.dynamiconlineshopping.backend.config.TokenRevocationList;
 import com.dynamiconlineshopping.backend.dto.UserDto;
 import com.dynamiconlineshopping.backend.entity.Order;
 import com.dynamiconlineshopping.backend.entity.User;
@@ -9,6 +12,7 @@ import com.dynamiconlineshopping.backend.exception.ResourceNotFoundException;
 import com.dynamiconlineshopping.backend.repository.OrderRepository;
 import com.dynamiconlineshopping.backend.repository.ProductRepository;
 import com.dynamiconlineshopping.backend.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
@@ -30,6 +34,13 @@ class UserServiceImplTest {
     private OrderRepository orderRepository;
     @Mock
     private ProductRepository productRepository;
+    @Mock
+    private UserIdentityCache userIdentityCache;
+    @Mock
+    private TokenRevocationList tokenRevocationList;
+
+    @Spy
+    private SingleFlight singleFlight = new SingleFlight(new SimpleMeterRegistry());
 
     @InjectMocks
     private UserServiceImpl userService;
@@ -59,6 +70,8 @@ class UserServiceImplTest {
         UserDto out = userService.updateUserRole(2L, "ADMIN");
         assertThat(out.getRole()).isEqualTo(Role.ADMIN);
         verify(userRepository).save(any(User.class));
+        verify(userIdentityCache).invalidate("b@b.com");
+        verify(tokenRevocationList).revokeUser(2L);
     }
 
     @Test
@@ -69,9 +82,7 @@ class UserServiceImplTest {
         when(userRepository.countByRole(Role.ADMIN)).thenReturn(1L);
         when(userRepository.countByRole(Role.CUSTOMER)).thenReturn(9L);
 
-        Order paidOrder = Order.builder().id(1L).status(OrderStatus.PAID).totalAmount(100.0).createdAt(Instant.now()).build();
-        Order other = Order.builder().id(2L).status(OrderStatus.PENDING).totalAmount(50.0).createdAt(Instant.now()).build();
-        when(orderRepository.findAll()).thenReturn(List.of(paidOrder, other));
+        when(orderRepository.sumTotalAmountByStatus(OrderStatus.PAID)).thenReturn(100.0);
 
         Order recent = Order.builder().id(3L).createdAt(Instant.now()).totalAmount(10.0).build();
         when(orderRepository.findTop5ByOrderByCreatedAtDesc()).thenReturn(List.of(recent));
@@ -82,5 +93,6 @@ class UserServiceImplTest {
         assertThat(stats.get("totalOrders")).isEqualTo(5L);
         assertThat(stats.get("totalRevenue")).isEqualTo(100.0);
         assertThat(stats).containsKeys("usersByRole", "recentOrders");
+        verify(orderRepository, never()).findAll();
     }
 }
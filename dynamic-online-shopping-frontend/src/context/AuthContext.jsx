@@ -1,4 +1,5 @@
 import React, { createContext, useState, useContext, useEffect } from "react";
+import { authAPI } from "../services/api";
 
 const AuthContext = createContext();
 
@@ -24,14 +25,24 @@ export const AuthProvider = ({ children }) => {
   }, []);
 
   const login = (userData, token) => {
-    setUser(userData);
+    const { refreshToken, ...profile } = userData;
+    setUser(profile);
     localStorage.setItem("token", token);
-    localStorage.setItem("user", JSON.stringify(userData));
+    if (refreshToken) {
+      localStorage.setItem("refreshToken", refreshToken);
+    }
+    localStorage.setItem("user", JSON.stringify(profile));
   };
 
   const logout = () => {
+    // Server-side revocation is best effort; the session ends locally either way
+    const token = localStorage.getItem("token");
+    if (token) {
+      authAPI.logout(token, localStorage.getItem("refreshToken")).catch(() => {});
+    }
     setUser(null);
     localStorage.removeItem("token");
+    localStorage.removeItem("refreshToken");
     localStorage.removeItem("user");
   };
 
@@ -9,15 +9,69 @@ const api = axios.create({
 // Add token to requests
 api.interceptors.request.use((config) => {
   const token = localStorage.getItem("token");
-  if (token) {
+  if (token && !config.headers.Authorization) {
     config.headers.Authorization = `Bearer ${token}`;
   }
   return config;
 });
 
+// Access tokens are short-lived: on a 401, swap the refresh token for a new pair and retry once.
+// Refresh tokens are single-use, so concurrent 401s share one refresh call. Auth calls themselves
+// (a wrong password on login, refresh, logout) are never retried.
+let refreshing = null;
+
+api.interceptors.response.use(
+  (response) => response,
+  async (error) => {
+    const original = error.config;
+    const refreshToken = localStorage.getItem("refreshToken");
+    if (
+      error.response?.status !== 401 ||
+      !refreshToken ||
+      !original ||
+      original._retried ||
+      original.url?.startsWith("/auth/")
+    ) {
+      return Promise.reject(error);
+    }
+    original._retried = true;
+
+    if (!refreshing) {
+      refreshing = api
+        .post("/auth/refresh", null, {
+          headers: { Authorization: `Bearer ${refreshToken}` },
+        })
+        .then((response) => {
+          localStorage.setItem("token", response.data.token);
+          localStorage.setItem("refreshToken", response.data.refreshToken);
+          return response.data.token;
+        })
+        .catch((refreshError) => {
+          localStorage.removeItem("token");
+          localStorage.removeItem("refreshToken");
+          localStorage.removeItem("user");
+          throw refreshError;
+        })
+        .finally(() => {
+          refreshing = null;
+        });
+    }
+
+    const token = await refreshing;
+    original.headers.Authorization = `Bearer ${token}`;
+    return api(original);
+  }
+);
+
 export const authAPI = {
   login: (credentials) => api.post("/auth/login", credentials),
   register: (userData) => api.post("/auth/register", userData),
+  logout: (token, refreshToken) =>
+    api.post(
+      "/auth/logout",
+      { refreshToken },
+      { headers: { Authorization: `Bearer ${token}` } }
+    ),
 };
 
 export const productAPI = {